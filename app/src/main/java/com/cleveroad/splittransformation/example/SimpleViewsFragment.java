@@ -12,6 +12,7 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
 
+import com.cleveroad.splittransformation.ContentKeyProvider;
 import com.cleveroad.splittransformation.SquareViewPagerIndicator;
 import com.cleveroad.splittransformation.TransformationAdapterWrapper;
 
@@ -64,7 +65,7 @@ public class SimpleViewsFragment extends Fragment {
         getActivity().setTitle(R.string.simple_views);
     }
 
-    private static class SimplePagerAdapter extends PagerAdapter {
+    private static class SimplePagerAdapter extends PagerAdapter implements ContentKeyProvider {
 
         private final int[] drawables = new int[] {
                 R.drawable.administrator,
@@ -109,5 +110,11 @@ public class SimpleViewsFragment extends Fragment {
         public void destroyItem(ViewGroup container, int position, Object object) {
             container.removeView((View) object);
         }
+
+        @Override
+        public Object getContentKey(int position) {
+            // pages show only drawable, so pages with same drawable share snapshot
+            return drawables[position];
+        }
     }
 }
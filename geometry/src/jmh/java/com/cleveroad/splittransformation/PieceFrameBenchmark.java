@@ -0,0 +1,57 @@
+package com.cleveroad.splittransformation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time per frame of piece transformations for square grids. Every invocation computes one frame of a swipe,
+ * position moves from -1 to 1 between invocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PieceFrameBenchmark {
+
+    private static final int FRAMES_PER_SWIPE = 60;
+    private static final float WIDTH = 1080;
+    private static final float HEIGHT = 1920;
+
+    @Param({"2", "4", "8", "16", "32", "64"})
+    public int gridSize;
+
+    private PieceLayout layout;
+    private PieceFrame frame;
+    private float pieceWidth, pieceHeight;
+    private int frameIndex;
+
+    @Setup
+    public void setup() {
+        layout = new PieceLayout(gridSize, gridSize, 24, 42L);
+        frame = new PieceFrame(gridSize, gridSize);
+        pieceWidth = WIDTH / gridSize;
+        pieceHeight = HEIGHT / gridSize;
+    }
+
+    @Benchmark
+    public int computeFrame() {
+        frameIndex = (frameIndex + 1) % (FRAMES_PER_SWIPE + 1);
+        float position = -1 + 2f * frameIndex / FRAMES_PER_SWIPE;
+        return frame.compute(layout, position, 0, 0, pieceWidth, pieceHeight, 300, 200, 0, 0, WIDTH, HEIGHT);
+    }
+
+    @Benchmark
+    public boolean isVisible() {
+        frameIndex = (frameIndex + 1) % (FRAMES_PER_SWIPE + 1);
+        float angle = 90f * frameIndex / FRAMES_PER_SWIPE;
+        return PieceGeometry.isVisible(frameIndex, frameIndex, frameIndex + pieceWidth, frameIndex + pieceHeight, angle,
+                0, 0, WIDTH, HEIGHT);
+    }
+}
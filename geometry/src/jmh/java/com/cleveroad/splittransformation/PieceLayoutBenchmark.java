@@ -0,0 +1,33 @@
+package com.cleveroad.splittransformation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building piece layout compared to obtaining shared one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PieceLayoutBenchmark {
+
+    @Param({"2", "4", "8", "16", "32", "64"})
+    public int gridSize;
+
+    @Benchmark
+    public PieceLayout build() {
+        return new PieceLayout(gridSize, gridSize, 24, 42L);
+    }
+
+    @Benchmark
+    public PieceLayout obtain() {
+        return PieceLayout.obtain(gridSize, gridSize, 24, 42L);
+    }
+}
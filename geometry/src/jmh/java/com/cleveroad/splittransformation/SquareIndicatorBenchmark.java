@@ -0,0 +1,38 @@
+package com.cleveroad.splittransformation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time per frame of square indicator layout.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SquareIndicatorBenchmark {
+
+    private static final int FRAMES_PER_SWIPE = 60;
+
+    @Param({"4", "16", "64"})
+    public int count;
+
+    private int frameIndex;
+
+    @Benchmark
+    public float layoutFrame() {
+        frameIndex = (frameIndex + 1) % FRAMES_PER_SWIPE;
+        float startX = SquareIndicatorGeometry.getStartX(count, 540, 30, 6);
+        float sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += SquareIndicatorGeometry.getSquareLeft(startX, i, 30, 6);
+        }
+        return sum + SquareIndicatorGeometry.getIndicatorLeft(startX, count / 2, frameIndex / (float) FRAMES_PER_SWIPE, 30, 6);
+    }
+}
@@ -0,0 +1,121 @@
+package com.cleveroad.splittransformation;
+
+/**
+ * Bounds and rotations of all pieces of split bitmap in a single frame. Frame is computed from page's position
+ * and reused between frames, so computation doesn't allocate.
+ */
+public final class PieceFrame {
+
+    private final int rows, cols;
+    private final float[] bounds;
+    private final float[] angles;
+    private final boolean[] visible;
+    private int visibleCount;
+
+    /**
+     * @param rows number of rows
+     * @param cols number of columns
+     */
+    public PieceFrame(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        int pieces = rows * cols;
+        bounds = new float[pieces * 4];
+        angles = new float[pieces];
+        visible = new boolean[pieces];
+    }
+
+    /**
+     * Compute bounds and rotations of pieces and check which pieces intersect clip bounds.
+     *
+     * @param layout       layout of pieces
+     * @param position     position of page relative to the current front-and-center position of the pager
+     * @param left         left coordinate of not transformed bitmap
+     * @param top          top coordinate of not transformed bitmap
+     * @param pieceWidth   width of piece
+     * @param pieceHeight  height of piece
+     * @param translationX translation on axis X
+     * @param translationY translation on axis Y
+     * @param clipLeft     left coordinate of clip bounds
+     * @param clipTop      top coordinate of clip bounds
+     * @param clipRight    right coordinate of clip bounds
+     * @param clipBottom   bottom coordinate of clip bounds
+     * @return number of visible pieces
+     */
+    public int compute(PieceLayout layout, float position, float left, float top, float pieceWidth, float pieceHeight,
+                       float translationX, float translationY,
+                       float clipLeft, float clipTop, float clipRight, float clipBottom) {
+        float absPosition = Math.abs(position);
+        visibleCount = 0;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                int index = i * cols + j;
+                float tX;
+                if (position < 0) {
+                    tX = (-translationX - layout.getSpacingX(index) * (cols - j)) * absPosition;
+                } else {
+                    tX = (translationX + layout.getSpacingX(index) * j) * absPosition;
+                }
+                float tY = (translationY - layout.getSpacingY(index) * (rows - i)) * absPosition;
+                float l = pieceWidth * j + left + tX;
+                float t = pieceHeight * i + top + tY;
+                float r = pieceWidth * (j + 1) + left + tX;
+                float b = pieceHeight * (i + 1) + top + tY;
+                float angle = layout.getRotation(index) * absPosition;
+                int offset = index * 4;
+                bounds[offset] = l;
+                bounds[offset + 1] = t;
+                bounds[offset + 2] = r;
+                bounds[offset + 3] = b;
+                angles[index] = angle;
+                visible[index] = PieceGeometry.isVisible(l, t, r, b, angle, clipLeft, clipTop, clipRight, clipBottom);
+                if (visible[index]) {
+                    visibleCount++;
+                }
+            }
+        }
+        return visibleCount;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Get number of pieces visible in last computed frame.
+     */
+    public int getVisibleCount() {
+        return visibleCount;
+    }
+
+    public boolean isVisible(int index) {
+        return visible[index];
+    }
+
+    public float getLeft(int index) {
+        return bounds[index * 4];
+    }
+
+    public float getTop(int index) {
+        return bounds[index * 4 + 1];
+    }
+
+    public float getRight(int index) {
+        return bounds[index * 4 + 2];
+    }
+
+    public float getBottom(int index) {
+        return bounds[index * 4 + 3];
+    }
+
+    /**
+     * Get rotation of piece around its center in degrees.
+     */
+    public float getAngle(int index) {
+        return angles[index];
+    }
+}
@@ -0,0 +1,40 @@
+package com.cleveroad.splittransformation;
+
+/**
+ * Geometry helpers for pieces of split bitmap.
+ */
+public final class PieceGeometry {
+
+    private PieceGeometry() {
+    }
+
+    /**
+     * Check if piece rotated around its center intersects clip bounds.
+     * Piece is visible if axis-aligned bounding box of rotated piece intersects clip bounds.
+     *
+     * @param left       piece's left coordinate before rotation
+     * @param top        piece's top coordinate before rotation
+     * @param right      piece's right coordinate before rotation
+     * @param bottom     piece's bottom coordinate before rotation
+     * @param angle      rotation angle in degrees
+     * @param clipLeft   left coordinate of clip bounds
+     * @param clipTop    top coordinate of clip bounds
+     * @param clipRight  right coordinate of clip bounds
+     * @param clipBottom bottom coordinate of clip bounds
+     * @return true if piece is at least partially visible, false otherwise
+     */
+    public static boolean isVisible(float left, float top, float right, float bottom, float angle,
+                                    float clipLeft, float clipTop, float clipRight, float clipBottom) {
+        double radians = Math.toRadians(angle);
+        float cos = Math.abs((float) Math.cos(radians));
+        float sin = Math.abs((float) Math.sin(radians));
+        float hw = (right - left) / 2;
+        float hh = (bottom - top) / 2;
+        float cx = left + hw;
+        float cy = top + hh;
+        // half sizes of bounding box of rotated piece
+        float ex = hw * cos + hh * sin;
+        float ey = hw * sin + hh * cos;
+        return cx - ex < clipRight && cx + ex > clipLeft && cy - ey < clipBottom && cy + ey > clipTop;
+    }
+}
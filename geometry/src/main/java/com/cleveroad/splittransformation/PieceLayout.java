@@ -0,0 +1,168 @@
+package com.cleveroad.splittransformation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Immutable table of random spacings and rotations of pieces. Tables are built once per
+ * (rows, columns, spacing, seed, rotation scale) and shared by all bitmap transformers that use the same parameters.
+ */
+public final class PieceLayout {
+
+    private static final int MAX_CACHED_LAYOUTS = 8;
+
+    private static final Map<Key, PieceLayout> CACHE = new LinkedHashMap<Key, PieceLayout>(MAX_CACHED_LAYOUTS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, PieceLayout> eldest) {
+            return size() > MAX_CACHED_LAYOUTS;
+        }
+    };
+
+    private final int rows, cols;
+    private final float[] spacingsX;
+    private final float[] spacingsY;
+    private final float[] rotations;
+
+    /**
+     * Create new layout. Prefer {@link #obtain(int, int, float, long)} to share layouts between transformers.
+     *
+     * @param rows          number of rows
+     * @param cols          number of columns
+     * @param piecesSpacing maximum spacing between pieces
+     * @param seed          seed of random generator
+     */
+    public PieceLayout(int rows, int cols, float piecesSpacing, long seed) {
+        this(rows, cols, piecesSpacing, seed, 1f);
+    }
+
+    /**
+     * Create new layout. Prefer {@link #obtain(int, int, float, long, float)} to share layouts between transformers.
+     *
+     * @param rows          number of rows
+     * @param cols          number of columns
+     * @param piecesSpacing maximum spacing between pieces
+     * @param seed          seed of random generator
+     * @param rotationScale multiplier of pieces' rotations
+     */
+    public PieceLayout(int rows, int cols, float piecesSpacing, long seed, float rotationScale) {
+        this.rows = rows;
+        this.cols = cols;
+        int pieces = rows * cols;
+        spacingsX = new float[pieces];
+        spacingsY = new float[pieces];
+        rotations = new float[pieces];
+        Random random = new Random(seed);
+        for (int i = 0; i < pieces; i++) {
+            spacingsX[i] = piecesSpacing + random.nextFloat() * piecesSpacing / 4 * (random.nextBoolean() ? 1 : -1);
+            spacingsY[i] = piecesSpacing + random.nextFloat() * piecesSpacing / 4 * (random.nextBoolean() ? 1 : -1);
+            rotations[i] = (20 + random.nextFloat() * 70 * (random.nextBoolean() ? 1 : -1)) * rotationScale;
+        }
+    }
+
+    /**
+     * Get shared layout with given parameters. Layout is built only if it isn't cached yet.
+     *
+     * @param rows          number of rows
+     * @param cols          number of columns
+     * @param piecesSpacing maximum spacing between pieces
+     * @param seed          seed of random generator
+     * @return shared layout
+     */
+    public static PieceLayout obtain(int rows, int cols, float piecesSpacing, long seed) {
+        return obtain(rows, cols, piecesSpacing, seed, 1f);
+    }
+
+    /**
+     * Get shared layout with given parameters. Layout is built only if it isn't cached yet.
+     *
+     * @param rows          number of rows
+     * @param cols          number of columns
+     * @param piecesSpacing maximum spacing between pieces
+     * @param seed          seed of random generator
+     * @param rotationScale multiplier of pieces' rotations
+     * @return shared layout
+     */
+    public static PieceLayout obtain(int rows, int cols, float piecesSpacing, long seed, float rotationScale) {
+        Key key = new Key(rows, cols, piecesSpacing, seed, rotationScale);
+        synchronized (CACHE) {
+            PieceLayout layout = CACHE.get(key);
+            if (layout == null) {
+                layout = new PieceLayout(rows, cols, piecesSpacing, seed, rotationScale);
+                CACHE.put(key, layout);
+            }
+            return layout;
+        }
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Get spacing of piece on axis X.
+     *
+     * @param index index of piece: row * cols + column
+     */
+    public float getSpacingX(int index) {
+        return spacingsX[index];
+    }
+
+    /**
+     * Get spacing of piece on axis Y.
+     *
+     * @param index index of piece: row * cols + column
+     */
+    public float getSpacingY(int index) {
+        return spacingsY[index];
+    }
+
+    /**
+     * Get rotation of piece in degrees when page is one full position away from center.
+     *
+     * @param index index of piece: row * cols + column
+     */
+    public float getRotation(int index) {
+        return rotations[index];
+    }
+
+    private static class Key {
+
+        private final int rows, cols;
+        private final float piecesSpacing;
+        private final long seed;
+        private final float rotationScale;
+
+        private Key(int rows, int cols, float piecesSpacing, long seed, float rotationScale) {
+            this.rows = rows;
+            this.cols = cols;
+            this.piecesSpacing = piecesSpacing;
+            this.seed = seed;
+            this.rotationScale = rotationScale;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return rows == key.rows && cols == key.cols && seed == key.seed
+                    && Float.compare(key.piecesSpacing, piecesSpacing) == 0
+                    && Float.compare(key.rotationScale, rotationScale) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = rows;
+            result = 31 * result + cols;
+            result = 31 * result + Float.floatToIntBits(piecesSpacing);
+            result = 31 * result + (int) (seed ^ (seed >>> 32));
+            result = 31 * result + Float.floatToIntBits(rotationScale);
+            return result;
+        }
+    }
+}
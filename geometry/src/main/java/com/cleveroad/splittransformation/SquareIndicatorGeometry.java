@@ -0,0 +1,57 @@
+package com.cleveroad.splittransformation;
+
+/**
+ * Layout math of {@code SquareViewPagerIndicator}. Squares and spaces between them are laid out
+ * in a row of {@code 2 * count - 1} cells centered horizontally.
+ */
+public final class SquareIndicatorGeometry {
+
+    private SquareIndicatorGeometry() {
+    }
+
+    /**
+     * Get left coordinate of first square.
+     *
+     * @param count      number of squares
+     * @param centerX    horizontal center of indicator
+     * @param squareSize size of square
+     * @param spacing    spacing between squares
+     * @return left coordinate of first square
+     */
+    public static float getStartX(int count, float centerX, float squareSize, float spacing) {
+        int totalCount = 2 * count - 1;
+        int halfCount = totalCount >> 1;
+        float startX = centerX - halfCount * (squareSize + spacing);
+        if (totalCount % 2 != 0) {
+            startX -= squareSize / 2 + spacing / 2;
+        }
+        return startX;
+    }
+
+    /**
+     * Get left coordinate of square.
+     *
+     * @param startX     left coordinate of first square
+     * @param index      index of square
+     * @param squareSize size of square
+     * @param spacing    spacing between squares
+     * @return left coordinate of square
+     */
+    public static float getSquareLeft(float startX, int index, float squareSize, float spacing) {
+        return startX + (squareSize + spacing) * index * 2;
+    }
+
+    /**
+     * Get left coordinate of indicator moving between squares.
+     *
+     * @param startX           left coordinate of first square
+     * @param selectedPosition position of selected page
+     * @param scrolledOffset   offset of scrolled page in range [0, 1)
+     * @param squareSize       size of square
+     * @param spacing          spacing between squares
+     * @return left coordinate of indicator
+     */
+    public static float getIndicatorLeft(float startX, int selectedPosition, float scrolledOffset, float squareSize, float spacing) {
+        return startX + (squareSize + spacing) * (selectedPosition * 2 + scrolledOffset * 2);
+    }
+}
@@ -0,0 +1,67 @@
+package com.cleveroad.splittransformation;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Tests that computing frames of a swipe doesn't allocate memory.
+ */
+public class PieceFrameAllocationTest {
+
+    private static final int ROWS = 8;
+    private static final int COLUMNS = 8;
+    private static final int FRAMES = 300;
+    private static final float WIDTH = 480;
+    private static final float HEIGHT = 800;
+
+    private com.sun.management.ThreadMXBean bean;
+    private PieceLayout layout;
+    private PieceFrame frame;
+
+    @Before
+    public void setUp() throws Exception {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+        bean = (com.sun.management.ThreadMXBean) threadBean;
+        assumeTrue(bean.isThreadAllocatedMemorySupported());
+        bean.setThreadAllocatedMemoryEnabled(true);
+        layout = new PieceLayout(ROWS, COLUMNS, 24, 42L);
+        frame = new PieceFrame(ROWS, COLUMNS);
+    }
+
+    @Test
+    public void swipe_doesNotAllocate() throws Exception {
+        long threadId = Thread.currentThread().getId();
+        // warm up code paths and allocation counter
+        swipe();
+        bean.getThreadAllocatedBytes(threadId);
+        long before = bean.getThreadAllocatedBytes(threadId);
+        swipe();
+        long allocated = bean.getThreadAllocatedBytes(threadId) - before;
+        assertEquals("Bytes allocated by PieceFrame.compute", 0, allocated);
+    }
+
+    /**
+     * Compute frames of a swipe to the next page and back and read every piece like transformers do when drawing.
+     */
+    private float swipe() {
+        float sum = 0;
+        for (int i = -FRAMES; i <= FRAMES; i++) {
+            float position = i / (float) FRAMES;
+            frame.compute(layout, position, 0, 0, WIDTH / COLUMNS, HEIGHT / ROWS, 300, 200, 0, 0, WIDTH, HEIGHT);
+            for (int index = 0; index < ROWS * COLUMNS; index++) {
+                if (frame.isVisible(index)) {
+                    sum += frame.getLeft(index) + frame.getTop(index) + frame.getRight(index) + frame.getBottom(index)
+                            + frame.getAngle(index);
+                }
+            }
+        }
+        return sum;
+    }
+}
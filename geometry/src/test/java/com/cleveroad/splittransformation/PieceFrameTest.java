@@ -0,0 +1,45 @@
+package com.cleveroad.splittransformation;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for computation of piece bounds.
+ */
+public class PieceFrameTest {
+
+    @Test
+    public void frontPosition_keepsPiecesInGrid() throws Exception {
+        PieceFrame frame = new PieceFrame(2, 3);
+        PieceLayout layout = new PieceLayout(2, 3, 10, 1L);
+        int visible = frame.compute(layout, 0, 5, 10, 20, 30, 100, 100, 0, 0, 1000, 1000);
+        assertEquals(6, visible);
+        // second row, third column
+        assertEquals(45, frame.getLeft(5), 0);
+        assertEquals(40, frame.getTop(5), 0);
+        assertEquals(65, frame.getRight(5), 0);
+        assertEquals(70, frame.getBottom(5), 0);
+        assertEquals(0, frame.getAngle(5), 0);
+    }
+
+    @Test
+    public void farPosition_movesPiecesOutOfClip() throws Exception {
+        PieceFrame frame = new PieceFrame(4, 4);
+        PieceLayout layout = new PieceLayout(4, 4, 10, 1L);
+        int visible = frame.compute(layout, 1, 0, 0, 10, 10, 1000, 0, 0, 0, 40, 40);
+        assertEquals(0, visible);
+        assertEquals(0, frame.getVisibleCount());
+    }
+
+    @Test
+    public void negativePosition_movesPiecesLeft() throws Exception {
+        PieceFrame frame = new PieceFrame(2, 2);
+        PieceLayout layout = new PieceLayout(2, 2, 10, 1L);
+        frame.compute(layout, -0.5f, 0, 0, 10, 10, 100, 0, 0, 0, 1000, 1000);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(frame.getLeft(i) < 0);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.cleveroad.splittransformation;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for visibility checks of pieces.
+ */
+public class PieceGeometryTest {
+
+    private static final float CLIP_RIGHT = 100;
+    private static final float CLIP_BOTTOM = 200;
+
+    @Test
+    public void pieceInsideClip_isVisible() throws Exception {
+        assertTrue(isVisible(10, 10, 20, 20, 0));
+        assertTrue(isVisible(10, 10, 20, 20, 45));
+    }
+
+    @Test
+    public void pieceOutsideClip_isCulled() throws Exception {
+        assertFalse(isVisible(110, 10, 120, 20, 0));
+        assertFalse(isVisible(-30, 10, -20, 20, 0));
+        assertFalse(isVisible(10, -30, 20, -20, 0));
+        assertFalse(isVisible(10, 210, 20, 220, 0));
+    }
+
+    @Test
+    public void pieceCrossingClip_isVisible() throws Exception {
+        assertTrue(isVisible(95, 10, 105, 20, 0));
+        assertTrue(isVisible(-5, -5, 5, 5, 90));
+    }
+
+    @Test
+    public void rotatedPieceCorner_isVisible() throws Exception {
+        // piece is 2px to the right of clip, but its corner enters clip after rotation by 45 degrees
+        assertFalse(isVisible(102, 50, 122, 70, 0));
+        assertTrue(isVisible(102, 50, 122, 70, 45));
+        // rotation by 90 degrees of square piece doesn't change its bounds
+        assertFalse(isVisible(102, 50, 122, 70, 90));
+    }
+
+    @Test
+    public void flownAwayPieces_areCulled() throws Exception {
+        // pieces at |position| close to 1 are translated far away from canvas
+        int culled = 0;
+        for (int i = 0; i < 8; i++) {
+            for (int j = 0; j < 8; j++) {
+                float left = 10 * j + 300;
+                float top = 10 * i - 250;
+                if (!isVisible(left, top, left + 10, top + 10, 80)) {
+                    culled++;
+                }
+            }
+        }
+        assertEquals(64, culled);
+    }
+
+    private static boolean isVisible(float left, float top, float right, float bottom, float angle) {
+        return PieceGeometry.isVisible(left, top, right, bottom, angle, 0, 0, CLIP_RIGHT, CLIP_BOTTOM);
+    }
+}
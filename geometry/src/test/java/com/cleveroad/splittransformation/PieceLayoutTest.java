@@ -0,0 +1,44 @@
+package com.cleveroad.splittransformation;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for shared layouts of pieces.
+ */
+public class PieceLayoutTest {
+
+    @Test
+    public void obtain_sharesLayoutWithSameParameters() throws Exception {
+        PieceLayout layout = PieceLayout.obtain(8, 8, 10f, 42L);
+        assertSame(layout, PieceLayout.obtain(8, 8, 10f, 42L));
+        assertNotSame(layout, PieceLayout.obtain(8, 8, 10f, 43L));
+        assertNotSame(layout, PieceLayout.obtain(8, 8, 12f, 42L));
+        assertNotSame(layout, PieceLayout.obtain(4, 8, 10f, 42L));
+    }
+
+    @Test
+    public void sameSeed_producesSameLayout() throws Exception {
+        PieceLayout first = new PieceLayout(6, 5, 10f, 7L);
+        PieceLayout second = new PieceLayout(6, 5, 10f, 7L);
+        for (int i = 0; i < 30; i++) {
+            assertEquals(first.getSpacingX(i), second.getSpacingX(i), 0);
+            assertEquals(first.getSpacingY(i), second.getSpacingY(i), 0);
+            assertEquals(first.getRotation(i), second.getRotation(i), 0);
+        }
+    }
+
+    @Test
+    public void values_areInRange() throws Exception {
+        PieceLayout layout = new PieceLayout(8, 8, 16f, 1L);
+        for (int i = 0; i < 64; i++) {
+            assertTrue(layout.getSpacingX(i) >= 12f && layout.getSpacingX(i) <= 20f);
+            assertTrue(layout.getSpacingY(i) >= 12f && layout.getSpacingY(i) <= 20f);
+            assertTrue(layout.getRotation(i) >= -50f && layout.getRotation(i) <= 90f);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.cleveroad.splittransformation;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for layout of square indicator.
+ */
+public class SquareIndicatorGeometryTest {
+
+    @Test
+    public void squares_areLaidOutInEveryOtherCell() throws Exception {
+        float startX = SquareIndicatorGeometry.getStartX(3, 100, 10, 2);
+        assertEquals(70, startX, 0.001f);
+        assertEquals(94, SquareIndicatorGeometry.getSquareLeft(startX, 1, 10, 2), 0.001f);
+        assertEquals(118, SquareIndicatorGeometry.getSquareLeft(startX, 2, 10, 2), 0.001f);
+    }
+
+    @Test
+    public void indicator_movesBetweenSquares() throws Exception {
+        float startX = SquareIndicatorGeometry.getStartX(3, 100, 10, 2);
+        assertEquals(SquareIndicatorGeometry.getSquareLeft(startX, 1, 10, 2),
+                SquareIndicatorGeometry.getIndicatorLeft(startX, 1, 0, 10, 2), 0.001f);
+        assertEquals(SquareIndicatorGeometry.getSquareLeft(startX, 2, 10, 2),
+                SquareIndicatorGeometry.getIndicatorLeft(startX, 1, 1, 10, 2), 0.001f);
+    }
+}
@@ -0,0 +1,201 @@
+package com.cleveroad.splittransformation;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pool of bitmaps grouped into buckets by size and config. Used to reuse bitmaps of page snapshots
+ * instead of allocating new ones on every swipe.
+ */
+public class BitmapPool {
+
+    private final LinkedHashMap<Key, ArrayDeque<Bitmap>> buckets;
+    private final Key lookupKey = new Key();
+    private final int maxSize;
+    private int size;
+    private int hitCount;
+    private int missCount;
+    private long bytesAllocated;
+
+    /**
+     * Create new bitmap pool.
+     *
+     * @param maxSize maximum number of bytes held by pool
+     */
+    public BitmapPool(int maxSize) {
+        this.maxSize = maxSize;
+        this.buckets = new LinkedHashMap<>(8, 0.75f, true);
+    }
+
+    /**
+     * Get cleared bitmap from pool or create a new one if pool doesn't have a bitmap with requested size.
+     *
+     * @param width  bitmap's width
+     * @param height bitmap's height
+     * @param config bitmap's config
+     * @return mutable bitmap filled with transparent color
+     */
+    @NonNull
+    public synchronized Bitmap acquire(int width, int height, @NonNull Bitmap.Config config) {
+        lookupKey.set(width, height, config);
+        ArrayDeque<Bitmap> bucket = buckets.get(lookupKey);
+        Bitmap bitmap = bucket == null ? null : bucket.poll();
+        if (bitmap == null) {
+            missCount++;
+            bitmap = Bitmap.createBitmap(width, height, config);
+            bytesAllocated += getByteCount(bitmap);
+            return bitmap;
+        }
+        hitCount++;
+        size -= getByteCount(bitmap);
+        bitmap.eraseColor(Color.TRANSPARENT);
+        return bitmap;
+    }
+
+    /**
+     * Return bitmap to pool. Bitmap will be recycled if it can't be reused or pool is full.
+     *
+     * @param bitmap bitmap or null
+     */
+    public synchronized void release(@Nullable Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled()) {
+            return;
+        }
+        int byteCount = getByteCount(bitmap);
+        if (!bitmap.isMutable() || byteCount > maxSize) {
+            bitmap.recycle();
+            return;
+        }
+        lookupKey.set(bitmap.getWidth(), bitmap.getHeight(), bitmap.getConfig());
+        ArrayDeque<Bitmap> bucket = buckets.get(lookupKey);
+        if (bucket == null) {
+            bucket = new ArrayDeque<>();
+            buckets.put(new Key().set(bitmap.getWidth(), bitmap.getHeight(), bitmap.getConfig()), bucket);
+        }
+        bucket.offer(bitmap);
+        size += byteCount;
+        trimToSize(maxSize);
+    }
+
+    /**
+     * Copy bitmap into new immutable bitmap with another config and return source bitmap to pool.
+     * Copy is counted as allocated bitmap, because it never returns to pool.
+     *
+     * @param source bitmap acquired from pool
+     * @param config config of copy
+     * @return copy or source bitmap if it can't be copied
+     */
+    @NonNull
+    synchronized Bitmap copy(@NonNull Bitmap source, @NonNull Bitmap.Config config) {
+        Bitmap copy = source.copy(config, false);
+        if (copy == null) {
+            return source;
+        }
+        bytesAllocated += getByteCount(copy);
+        release(source);
+        return copy;
+    }
+
+    /**
+     * Recycle all bitmaps held by pool.
+     */
+    public synchronized void clear() {
+        trimToSize(0);
+    }
+
+    /**
+     * Get number of bytes held by pool.
+     */
+    public synchronized int getBytesHeld() {
+        return size;
+    }
+
+    /**
+     * Get number of requests that were satisfied with pooled bitmap.
+     */
+    public synchronized int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Get number of requests that required new bitmap allocation.
+     */
+    public synchronized int getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Get total number of bytes allocated for bitmaps that weren't found in pool.
+     */
+    public synchronized long getBytesAllocated() {
+        return bytesAllocated;
+    }
+
+    private void trimToSize(int maxSize) {
+        Iterator<Map.Entry<Key, ArrayDeque<Bitmap>>> iterator = buckets.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            ArrayDeque<Bitmap> bucket = iterator.next().getValue();
+            while (size > maxSize && !bucket.isEmpty()) {
+                Bitmap bitmap = bucket.poll();
+                size -= getByteCount(bitmap);
+                bitmap.recycle();
+            }
+            if (bucket.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Get number of bytes used to store bitmap's pixels.
+     *
+     * @param bitmap some bitmap
+     * @return number of bytes
+     */
+    static int getByteCount(@NonNull Bitmap bitmap) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            return bitmap.getAllocationByteCount();
+        }
+        return bitmap.getRowBytes() * bitmap.getHeight();
+    }
+
+    /**
+     * Key of bucket with bitmaps of same size and config.
+     */
+    private static class Key {
+
+        private int width, height;
+        private Bitmap.Config config;
+
+        private Key set(int width, int height, Bitmap.Config config) {
+            this.width = width;
+            this.height = height;
+            this.config = config;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return width == key.width && height == key.height && config == key.config;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = width;
+            result = 31 * result + height;
+            result = 31 * result + (config != null ? config.hashCode() : 0);
+            return result;
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.cleveroad.splittransformation;
 
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Picture;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 /**
  * Helper interface for transforming bitmaps.
@@ -41,6 +43,65 @@ public interface BitmapTransformer {
      */
     void onDraw(@NonNull Canvas canvas);
 
+    /**
+     * Optional interface for bitmap transformers that skip pieces outside of canvas' clip bounds.
+     */
+    interface CullingStatistics {
+
+        /**
+         * Get number of pieces drawn in last frame.
+         * @return number of drawn pieces
+         */
+        int getDrawnPiecesCount();
+
+        /**
+         * Get number of pieces skipped in last frame because they were outside of clip bounds.
+         * @return number of culled pieces
+         */
+        int getCulledPiecesCount();
+    }
+
+    /**
+     * Optional interface for bitmap transformers that can draw pieces of recorded picture instead of bitmap.
+     */
+    interface PictureSource {
+
+        /**
+         * Set picture recorded at original size. Bitmap is set to null while picture is used.
+         * @param picture recorded picture or null
+         * @param originalWidth original width
+         * @param originalHeight original height
+         */
+        void setPicture(@Nullable Picture picture, int originalWidth, int originalHeight);
+    }
+
+    /**
+     * Optional interface for bitmap transformers that can draw pieces of snapshot split into tiles.
+     * Without it pages that exceed maximum texture size are rendered into single bitmap.
+     */
+    interface TiledSource {
+
+        /**
+         * Set tiles of snapshot. Bitmap is set to null while tiles are used.
+         * @param tiles tiles of snapshot or null
+         * @param originalWidth original width
+         * @param originalHeight original height
+         */
+        void setTiles(@Nullable SnapshotTiles tiles, int originalWidth, int originalHeight);
+    }
+
+    /**
+     * Optional interface for bitmap transformers that use piece layout shared by all transformers of wrapper.
+     */
+    interface SharedLayout {
+
+        /**
+         * Set layout of pieces. Called after {@link BitmapTransformer#setup(int, int, int, float, float, float)}.
+         * @param pieceLayout shared immutable layout
+         */
+        void setPieceLayout(@NonNull PieceLayout pieceLayout);
+    }
+
     /**
      * Factory that produces new bitmap transformers.
      */
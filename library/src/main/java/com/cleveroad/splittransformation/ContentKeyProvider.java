@@ -0,0 +1,20 @@
+package com.cleveroad.splittransformation;
+
+import android.support.annotation.Nullable;
+
+/**
+ * Optional interface for inner pager adapters that know which pages have identical content.
+ * Pages with equal content keys share one snapshot instead of rendering their own.
+ */
+public interface ContentKeyProvider {
+
+    /**
+     * Get key of page's content. Keys are compared with {@link Object#equals(Object)} and must describe
+     * content of page at the moment it's instantiated.
+     *
+     * @param position page's position in adapter
+     * @return key of content or null if page's content is unique
+     */
+    @Nullable
+    Object getContentKey(int position);
+}
@@ -0,0 +1,94 @@
+package com.cleveroad.splittransformation;
+
+import android.graphics.Bitmap;
+import android.support.annotation.NonNull;
+
+/**
+ * Default decision table. Devices are split into three classes by RAM. Devices which screens are large for their RAM,
+ * so single full screen snapshot takes more than 1/16 of memory class, are moved one class down.
+ * Snapshots of low end and mid range devices are limited to xhdpi density, because pieces are moving and extra details aren't visible.
+ * Override {@link #tuneLowEnd(DeviceProfile)}, {@link #tuneMidRange(DeviceProfile)} or {@link #tuneHighEnd(DeviceProfile)}
+ * to change configuration of single class.
+ */
+public class DefaultTuningTable implements TuningTable {
+
+    /**
+     * Maximum memory class of low end devices in megabytes.
+     */
+    public static final int LOW_END_MEMORY_CLASS = 64;
+
+    /**
+     * Maximum memory class of mid range devices in megabytes.
+     */
+    public static final int MID_RANGE_MEMORY_CLASS = 128;
+
+    /**
+     * Density of snapshots on low end and mid range devices.
+     */
+    public static final int SNAPSHOT_DENSITY_DPI = 320;
+
+    private static final int BYTES_IN_MEGABYTE = 1024 * 1024;
+    private static final int BYTES_PER_PIXEL = 4;
+
+    @NonNull
+    @Override
+    public Tuning tune(@NonNull DeviceProfile profile) {
+        boolean largeScreen = profile.getScreenPixels() * BYTES_PER_PIXEL > memoryFraction(profile, 16);
+        if (profile.isLowRamDevice() || profile.getMemoryClass() <= LOW_END_MEMORY_CLASS
+                || largeScreen && profile.getMemoryClass() <= MID_RANGE_MEMORY_CLASS) {
+            return tuneLowEnd(profile);
+        }
+        if (profile.getMemoryClass() <= MID_RANGE_MEMORY_CLASS || largeScreen) {
+            return tuneMidRange(profile);
+        }
+        return tuneHighEnd(profile);
+    }
+
+    /**
+     * Configuration of low RAM devices: small grid, half scale, no alpha channel for opaque pages and small caches.
+     */
+    @NonNull
+    protected Tuning tuneLowEnd(@NonNull DeviceProfile profile) {
+        return new Tuning(5, 5, limitScale(profile, 0.5f), null,
+                memoryFraction(profile, 16), memoryFraction(profile, 32));
+    }
+
+    /**
+     * Configuration of mid range devices.
+     */
+    @NonNull
+    protected Tuning tuneMidRange(@NonNull DeviceProfile profile) {
+        return new Tuning(6, 6, limitScale(profile, 0.75f), null,
+                memoryFraction(profile, 8), memoryFraction(profile, 16));
+    }
+
+    /**
+     * Configuration of high end devices equal to defaults of builder.
+     */
+    @NonNull
+    protected Tuning tuneHighEnd(@NonNull DeviceProfile profile) {
+        return new Tuning(8, 8, 1f, Bitmap.Config.ARGB_8888,
+                memoryFraction(profile, 8), memoryFraction(profile, 16));
+    }
+
+    /**
+     * Limit scale, so density of snapshots doesn't exceed {@link #SNAPSHOT_DENSITY_DPI}.
+     */
+    protected static float limitScale(@NonNull DeviceProfile profile, float scale) {
+        if (profile.getDensityDpi() <= SNAPSHOT_DENSITY_DPI) {
+            return scale;
+        }
+        return Math.min(scale, SNAPSHOT_DENSITY_DPI / (float) profile.getDensityDpi());
+    }
+
+    /**
+     * Get part of application's memory class in bytes.
+     *
+     * @param profile profile of device
+     * @param divider divider of memory class
+     * @return number of bytes
+     */
+    protected static int memoryFraction(@NonNull DeviceProfile profile, int divider) {
+        return (int) ((long) profile.getMemoryClass() * BYTES_IN_MEGABYTE / divider);
+    }
+}
@@ -0,0 +1,75 @@
+package com.cleveroad.splittransformation;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.util.DisplayMetrics;
+
+/**
+ * Hardware characteristics of device used by {@link TuningTable} to choose configuration of wrapper.
+ */
+public final class DeviceProfile {
+
+    private final boolean lowRamDevice;
+    private final int memoryClass;
+    private final int densityDpi;
+    private final int widthPixels, heightPixels;
+
+    /**
+     * @param lowRamDevice true if device is considered low RAM device
+     * @param memoryClass  approximate per-application memory class in megabytes
+     * @param densityDpi   screen density in dots per inch
+     * @param widthPixels  screen width in pixels
+     * @param heightPixels screen height in pixels
+     */
+    public DeviceProfile(boolean lowRamDevice, int memoryClass, int densityDpi, int widthPixels, int heightPixels) {
+        this.lowRamDevice = lowRamDevice;
+        this.memoryClass = memoryClass;
+        this.densityDpi = densityDpi;
+        this.widthPixels = widthPixels;
+        this.heightPixels = heightPixels;
+    }
+
+    /**
+     * Read profile of current device.
+     *
+     * @param context instance of context
+     * @return profile of device
+     */
+    @NonNull
+    public static DeviceProfile from(@NonNull Context context) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        boolean lowRamDevice = Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT && activityManager.isLowRamDevice();
+        DisplayMetrics metrics = context.getResources().getDisplayMetrics();
+        return new DeviceProfile(lowRamDevice, activityManager.getMemoryClass(), metrics.densityDpi,
+                metrics.widthPixels, metrics.heightPixels);
+    }
+
+    public boolean isLowRamDevice() {
+        return lowRamDevice;
+    }
+
+    public int getMemoryClass() {
+        return memoryClass;
+    }
+
+    public int getDensityDpi() {
+        return densityDpi;
+    }
+
+    public int getWidthPixels() {
+        return widthPixels;
+    }
+
+    public int getHeightPixels() {
+        return heightPixels;
+    }
+
+    /**
+     * Get number of pixels on screen.
+     */
+    public long getScreenPixels() {
+        return (long) widthPixels * heightPixels;
+    }
+}
@@ -0,0 +1,50 @@
+package com.cleveroad.splittransformation;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.view.Choreographer;
+
+/**
+ * Feeds durations of frames to {@link QualityGovernor} while it's started.
+ */
+@TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+class FrameWatcher implements Choreographer.FrameCallback {
+
+    private final QualityGovernor governor;
+    private boolean started;
+    private long lastFrameTimeNanos;
+
+    FrameWatcher(QualityGovernor governor) {
+        this.governor = governor;
+    }
+
+    void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        lastFrameTimeNanos = 0;
+        governor.onSwipeStarted();
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    void stop() {
+        if (!started) {
+            return;
+        }
+        started = false;
+        Choreographer.getInstance().removeFrameCallback(this);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!started) {
+            return;
+        }
+        if (lastFrameTimeNanos != 0) {
+            governor.onFrame(frameTimeNanos - lastFrameTimeNanos);
+        }
+        lastFrameTimeNanos = frameTimeNanos;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+}
@@ -0,0 +1,271 @@
+package com.cleveroad.splittransformation;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Picture;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Random;
+
+/**
+ * Bitmap transformer that draws all pieces with single {@link Canvas#drawVertices} call per frame.
+ * Piece vertices and indices of visible pieces are computed for every frame, texture coordinates are computed once per bitmap.
+ * <br/>
+ * Hardware accelerated canvas supports vertices only since API 29, so on older versions pieces are drawn one by one.
+ * Picture and tiled snapshots can't be used as single texture, so their pieces are always drawn one by one.
+ */
+public class MeshBitmapTransformer implements BitmapTransformer, BitmapTransformer.CullingStatistics,
+        BitmapTransformer.SharedLayout, BitmapTransformer.PictureSource, BitmapTransformer.TiledSource {
+
+    private static final int API_DRAW_VERTICES_HW = 29;
+    private static final int FLOATS_PER_PIECE = 8;
+    private static final int INDICES_PER_PIECE = 6;
+
+    private final Paint paint = new Paint();
+    private final RectF canvasPiece = new RectF();
+    private final Rect bitmapPiece = new Rect();
+    private final Rect clipBounds = new Rect();
+    private int drawnPieces, culledPieces;
+    private boolean singleDrawCall;
+    private int rows, cols;
+    private int marginTop;
+    private float translationX, translationY;
+    private float piecesSpacing;
+    private PieceLayout pieceLayout;
+    private PieceFrame pieceFrame;
+    private float[] verts;
+    private float[] texs;
+    private short[] indices;
+    private boolean texsValid;
+    private Bitmap bitmap;
+    private Picture picture;
+    private SnapshotTiles tiles;
+    private int originalWidth, originalHeight;
+    private float position;
+
+    @Override
+    public void setup(int rows, int cols, int marginTop, float translationX, float translationY, float piecesSpacing) {
+        int pieces = rows * cols;
+        if (pieces * 4 > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many pieces for vertices mesh: " + pieces);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.marginTop = marginTop;
+        this.translationX = translationX;
+        this.translationY = translationY;
+        this.piecesSpacing = piecesSpacing;
+        this.pieceLayout = null;
+        this.pieceFrame = new PieceFrame(rows, cols);
+        verts = new float[pieces * FLOATS_PER_PIECE];
+        texs = new float[pieces * FLOATS_PER_PIECE];
+        indices = new short[pieces * INDICES_PER_PIECE];
+        texsValid = false;
+    }
+
+    @Override
+    public void setPieceLayout(@NonNull PieceLayout pieceLayout) {
+        this.pieceLayout = pieceLayout;
+    }
+
+    @Override
+    public void setBitmap(Bitmap bitmap, int originalWidth, int originalHeight) {
+        this.bitmap = bitmap;
+        this.picture = null;
+        this.tiles = null;
+        this.originalWidth = originalWidth;
+        this.originalHeight = originalHeight;
+        paint.setShader(bitmap == null ? null : new BitmapShader(bitmap, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP));
+        texsValid = false;
+    }
+
+    @Override
+    public void setPicture(@Nullable Picture picture, int originalWidth, int originalHeight) {
+        setBitmap(null, originalWidth, originalHeight);
+        this.picture = picture;
+    }
+
+    @Override
+    public void setTiles(@Nullable SnapshotTiles tiles, int originalWidth, int originalHeight) {
+        setBitmap(null, originalWidth, originalHeight);
+        this.tiles = tiles;
+    }
+
+    @Override
+    public void onTransformPage(float position) {
+        this.position = position;
+    }
+
+    @Override
+    public void onDraw(@NonNull Canvas canvas) {
+        drawnPieces = 0;
+        culledPieces = 0;
+        singleDrawCall = false;
+        if (bitmap == null && picture == null && tiles == null || verts == null) {
+            return;
+        }
+        if (!canvas.getClipBounds(clipBounds)) {
+            culledPieces = rows * cols;
+            return;
+        }
+        if (bitmap != null && !texsValid) {
+            computeTexs();
+        }
+        if (pieceLayout == null) {
+            // transformer is used without wrapper, so it has own random layout
+            pieceLayout = new PieceLayout(rows, cols, piecesSpacing, new Random().nextLong());
+        }
+        float left = (canvas.getWidth() - originalWidth) / 2;
+        float top = marginTop;
+        int wStep = originalWidth / cols;
+        int hStep = originalHeight / rows;
+        boolean singleCall = bitmap != null && supportsSingleDrawCall(canvas);
+        int visiblePieces = pieceFrame.compute(pieceLayout, position, left, top, wStep, hStep, translationX, translationY,
+                clipBounds.left, clipBounds.top, clipBounds.right, clipBounds.bottom);
+        culledPieces = rows * cols - visiblePieces;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                int index = i * cols + j;
+                if (!pieceFrame.isVisible(index)) {
+                    continue;
+                }
+                canvasPiece.set(pieceFrame.getLeft(index), pieceFrame.getTop(index),
+                        pieceFrame.getRight(index), pieceFrame.getBottom(index));
+                float angle = pieceFrame.getAngle(index);
+                if (singleCall) {
+                    computeVerts(index * FLOATS_PER_PIECE, angle);
+                    addIndices(drawnPieces * INDICES_PER_PIECE, index * 4);
+                } else if (picture != null) {
+                    PictureSnapshots.drawPiece(canvas, picture, canvasPiece, angle, wStep * j, hStep * i);
+                } else if (tiles != null) {
+                    int wBmStep = tiles.getWidth() / cols;
+                    int hBmStep = tiles.getHeight() / rows;
+                    tiles.drawPiece(canvas, canvasPiece, angle,
+                            wBmStep * j, hBmStep * i, wBmStep * (j + 1), hBmStep * (i + 1), null);
+                } else {
+                    int wBmStep = bitmap.getWidth() / cols;
+                    int hBmStep = bitmap.getHeight() / rows;
+                    bitmapPiece.set(wBmStep * j, hBmStep * i, wBmStep * (j + 1), hBmStep * (i + 1));
+                    canvas.save();
+                    canvas.rotate(angle, canvasPiece.centerX(), canvasPiece.centerY());
+                    canvas.drawBitmap(bitmap, bitmapPiece, canvasPiece, null);
+                    canvas.restore();
+                }
+                drawnPieces++;
+            }
+        }
+        if (singleCall && drawnPieces > 0) {
+            canvas.drawVertices(Canvas.VertexMode.TRIANGLES, verts.length, verts, 0, texs, 0,
+                    null, 0, indices, 0, drawnPieces * INDICES_PER_PIECE, paint);
+            singleDrawCall = true;
+        }
+    }
+
+    /**
+     * Check if canvas can draw all pieces of bitmap snapshot with single call.
+     *
+     * @param canvas some canvas
+     * @return true for software canvases and for hardware accelerated canvases since API 29, false otherwise
+     */
+    public static boolean supportsSingleDrawCall(@NonNull Canvas canvas) {
+        return !canvas.isHardwareAccelerated() || Build.VERSION.SDK_INT >= API_DRAW_VERTICES_HW;
+    }
+
+    /**
+     * Check if pieces of last frame were drawn with single {@link Canvas#drawVertices} call.
+     *
+     * @return true if single call was used, false if pieces were drawn one by one or nothing was drawn
+     */
+    public boolean isSingleDrawCall() {
+        return singleDrawCall;
+    }
+
+    @Override
+    public int getDrawnPiecesCount() {
+        return drawnPieces;
+    }
+
+    @Override
+    public int getCulledPiecesCount() {
+        return culledPieces;
+    }
+
+    /**
+     * Add two triangles of piece to indices.
+     *
+     * @param offset offset in indices array
+     * @param vertex index of piece's first vertex
+     */
+    private void addIndices(int offset, int vertex) {
+        indices[offset] = (short) vertex;
+        indices[offset + 1] = (short) (vertex + 1);
+        indices[offset + 2] = (short) (vertex + 2);
+        indices[offset + 3] = (short) (vertex + 1);
+        indices[offset + 4] = (short) (vertex + 3);
+        indices[offset + 5] = (short) (vertex + 2);
+    }
+
+    /**
+     * Compute corners of {@link #canvasPiece} rotated around its center.
+     * Corners are stored in order: top left, top right, bottom left, bottom right.
+     */
+    private void computeVerts(int offset, float angle) {
+        double radians = Math.toRadians(angle);
+        float cos = (float) Math.cos(radians);
+        float sin = (float) Math.sin(radians);
+        float cx = canvasPiece.centerX();
+        float cy = canvasPiece.centerY();
+        float hw = canvasPiece.width() / 2;
+        float hh = canvasPiece.height() / 2;
+        setVertex(offset, cx, cy, -hw, -hh, cos, sin);
+        setVertex(offset + 2, cx, cy, hw, -hh, cos, sin);
+        setVertex(offset + 4, cx, cy, -hw, hh, cos, sin);
+        setVertex(offset + 6, cx, cy, hw, hh, cos, sin);
+    }
+
+    private void setVertex(int offset, float cx, float cy, float dx, float dy, float cos, float sin) {
+        verts[offset] = cx + dx * cos - dy * sin;
+        verts[offset + 1] = cy + dx * sin + dy * cos;
+    }
+
+    private void computeTexs() {
+        int wBmStep = bitmap.getWidth() / cols;
+        int hBmStep = bitmap.getHeight() / rows;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                int offset = (i * cols + j) * FLOATS_PER_PIECE;
+                float l = wBmStep * j;
+                float t = hBmStep * i;
+                float r = wBmStep * (j + 1);
+                float b = hBmStep * (i + 1);
+                texs[offset] = l;
+                texs[offset + 1] = t;
+                texs[offset + 2] = r;
+                texs[offset + 3] = t;
+                texs[offset + 4] = l;
+                texs[offset + 5] = b;
+                texs[offset + 6] = r;
+                texs[offset + 7] = b;
+            }
+        }
+        texsValid = true;
+    }
+
+    /**
+     * Factory that produces mesh bitmap transformers.
+     */
+    public static class Factory implements BitmapTransformer.Factory {
+
+        @Override
+        public BitmapTransformer newTransformer(int position) {
+            return new MeshBitmapTransformer();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.cleveroad.splittransformation;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Trace;
+import android.support.annotation.Nullable;
+
+/**
+ * Collects metrics of transformation pipeline and delivers them to listener in batches.
+ * Optionally wraps expensive operations into {@link Trace} sections.
+ */
+class MetricsCollector {
+
+    static final String SECTION_GENERATE_BITMAP = "Bitutorial:generateBitmap";
+    static final String SECTION_TRANSFORM_PAGE = "Bitutorial:transformPage";
+    static final String SECTION_DRAW = "Bitutorial:onDraw";
+
+    private final TransformationMetricsListener listener;
+    private final BitmapPool bitmapPool;
+    private final boolean tracing;
+    private final TransformationMetrics metrics = new TransformationMetrics();
+    private int lastPoolHits, lastPoolMisses;
+
+    /**
+     * @param listener   listener or null to disable metrics
+     * @param bitmapPool pool of bitmaps used for snapshots
+     * @param tracing    true to add trace sections, ignored before Android 4.3
+     */
+    MetricsCollector(@Nullable TransformationMetricsListener listener, BitmapPool bitmapPool, boolean tracing) {
+        this.listener = listener;
+        this.bitmapPool = bitmapPool;
+        this.tracing = tracing && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2;
+        this.lastPoolHits = bitmapPool.getHitCount();
+        this.lastPoolMisses = bitmapPool.getMissCount();
+    }
+
+    /**
+     * Check if metrics are delivered to listener.
+     */
+    boolean isEnabled() {
+        return listener != null;
+    }
+
+    /**
+     * Get start time of measured operation.
+     *
+     * @return current time in nanoseconds or 0 if metrics are disabled
+     */
+    long startTime() {
+        return listener == null ? 0 : System.nanoTime();
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    void beginSection(String name) {
+        if (tracing) {
+            Trace.beginSection(name);
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    void endSection() {
+        if (tracing) {
+            Trace.endSection();
+        }
+    }
+
+    void onDraw(long startTime, int drawnPieces, int culledPieces) {
+        if (listener == null) {
+            return;
+        }
+        long nanos = System.nanoTime() - startTime;
+        metrics.frames++;
+        metrics.drawNanos += nanos;
+        metrics.maxDrawNanos = Math.max(metrics.maxDrawNanos, nanos);
+        metrics.drawnPieces += Math.max(0, drawnPieces);
+        metrics.culledPieces += Math.max(0, culledPieces);
+        if (metrics.frames >= TransformationMetrics.BATCH_FRAMES) {
+            flush();
+        }
+    }
+
+    void onSnapshotGenerated(long startTime, int byteCount, boolean incremental) {
+        if (listener == null) {
+            return;
+        }
+        long nanos = System.nanoTime() - startTime;
+        metrics.snapshots++;
+        if (incremental) {
+            metrics.incrementalSnapshots++;
+        }
+        metrics.snapshotNanos += nanos;
+        metrics.maxSnapshotNanos = Math.max(metrics.maxSnapshotNanos, nanos);
+        metrics.snapshotBytes += byteCount;
+    }
+
+    void onPictureSnapshot(int savedBytes) {
+        if (listener == null) {
+            return;
+        }
+        metrics.pictureSnapshots++;
+        metrics.savedBytes += savedBytes;
+    }
+
+    void onSharedSnapshot() {
+        if (listener == null) {
+            return;
+        }
+        metrics.sharedSnapshots++;
+    }
+
+    void onCacheLookup(boolean hit) {
+        if (listener == null) {
+            return;
+        }
+        if (hit) {
+            metrics.cacheHits++;
+        } else {
+            metrics.cacheMisses++;
+        }
+    }
+
+    void onStaleSnapshot() {
+        if (listener == null) {
+            return;
+        }
+        metrics.staleSnapshots++;
+    }
+
+    /**
+     * Deliver collected metrics to listener and start new batch.
+     */
+    void flush() {
+        if (listener == null) {
+            return;
+        }
+        int poolHits = bitmapPool.getHitCount();
+        int poolMisses = bitmapPool.getMissCount();
+        metrics.poolHits = poolHits - lastPoolHits;
+        metrics.poolMisses = poolMisses - lastPoolMisses;
+        lastPoolHits = poolHits;
+        lastPoolMisses = poolMisses;
+        if (metrics.frames == 0 && metrics.snapshots == 0 && metrics.cacheHits == 0 && metrics.cacheMisses == 0
+                && metrics.poolHits == 0 && metrics.poolMisses == 0 && metrics.staleSnapshots == 0
+                && metrics.pictureSnapshots == 0 && metrics.sharedSnapshots == 0) {
+            return;
+        }
+        listener.onMetrics(metrics);
+        metrics.reset();
+    }
+}
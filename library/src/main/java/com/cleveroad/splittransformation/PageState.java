@@ -0,0 +1,98 @@
+package com.cleveroad.splittransformation;
+
+/**
+ * State of single page updated by {@link TransformationAdapterWrapper#transformPage} on every frame.
+ * Kept in primitive fields so the per-frame path doesn't allocate memory.
+ */
+final class PageState {
+
+    private float position;
+    private boolean snapshotValid;
+    private boolean contentChanged;
+    private boolean snapshotShown;
+    private int prefetchPass;
+
+    /**
+     * Update position of page.
+     *
+     * @param position new position of page
+     * @return true if page has just left front-and-center position, false otherwise
+     */
+    boolean updatePosition(float position) {
+        boolean leftFront = this.position == 0 && position != 0;
+        this.position = position;
+        return leftFront;
+    }
+
+    /**
+     * Get last position of page.
+     */
+    float getPosition() {
+        return position;
+    }
+
+    /**
+     * Check if page's snapshot reflects page's content.
+     */
+    boolean isSnapshotValid() {
+        return snapshotValid;
+    }
+
+    void setSnapshotValid(boolean snapshotValid) {
+        this.snapshotValid = snapshotValid;
+    }
+
+    /**
+     * Check if page's content was changed since last snapshot was generated.
+     */
+    boolean isContentChanged() {
+        return contentChanged;
+    }
+
+    void setContentChanged(boolean contentChanged) {
+        this.contentChanged = contentChanged;
+    }
+
+    /**
+     * Check if snapshot is shown instead of inner view.
+     */
+    boolean isSnapshotShown() {
+        return snapshotShown;
+    }
+
+    /**
+     * Set whether snapshot is shown instead of inner view.
+     *
+     * @param snapshotShown true if snapshot is shown
+     * @return true if value was changed and views must be switched, false otherwise
+     */
+    boolean setSnapshotShown(boolean snapshotShown) {
+        if (this.snapshotShown == snapshotShown) {
+            return false;
+        }
+        this.snapshotShown = snapshotShown;
+        return true;
+    }
+
+    /**
+     * Get number of last prefetch pass that processed the page.
+     */
+    int getPrefetchPass() {
+        return prefetchPass;
+    }
+
+    void setPrefetchPass(int prefetchPass) {
+        this.prefetchPass = prefetchPass;
+    }
+
+    /**
+     * Reset state to initial values.
+     */
+    void reset() {
+        position = 0;
+        snapshotValid = false;
+        contentChanged = false;
+        snapshotShown = false;
+        prefetchPass = 0;
+    }
+}
@@ -0,0 +1,71 @@
+package com.cleveroad.splittransformation;
+
+import android.graphics.Canvas;
+import android.graphics.Picture;
+import android.graphics.RectF;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.view.SurfaceView;
+import android.view.TextureView;
+import android.view.View;
+import android.view.ViewGroup;
+import android.webkit.WebView;
+
+/**
+ * Helpers for snapshots recorded into {@link Picture} instead of bitmap.
+ */
+final class PictureSnapshots {
+
+    private PictureSnapshots() {
+    }
+
+    /**
+     * Check if view's content can be recorded into picture. Surface views, texture views and web views draw their content
+     * outside of recording canvas, so they require raster snapshots. Hardware accelerated canvas can't draw pictures before Android 6.0.
+     *
+     * @param view some view
+     * @return true if view can be recorded, false otherwise
+     */
+    static boolean canRecord(@NonNull View view) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M && view.isHardwareAccelerated()) {
+            return false;
+        }
+        return isRecordable(view);
+    }
+
+    private static boolean isRecordable(View view) {
+        if (view instanceof SurfaceView || view instanceof WebView
+                || Build.VERSION.SDK_INT >= Build.VERSION_CODES.ICE_CREAM_SANDWICH && view instanceof TextureView) {
+            return false;
+        }
+        if (view instanceof ViewGroup) {
+            ViewGroup group = (ViewGroup) view;
+            for (int i = 0; i < group.getChildCount(); i++) {
+                if (!isRecordable(group.getChildAt(i))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Draw piece of picture rotated around its center.
+     *
+     * @param canvas      some canvas
+     * @param picture     picture recorded at original size
+     * @param canvasPiece bounds of piece on canvas
+     * @param angle       rotation angle in degrees
+     * @param sourceLeft  left coordinate of piece in picture
+     * @param sourceTop   top coordinate of piece in picture
+     */
+    static void drawPiece(@NonNull Canvas canvas, @NonNull Picture picture, @NonNull RectF canvasPiece, float angle,
+                          float sourceLeft, float sourceTop) {
+        canvas.save();
+        canvas.rotate(angle, canvasPiece.centerX(), canvasPiece.centerY());
+        canvas.clipRect(canvasPiece);
+        canvas.translate(canvasPiece.left - sourceLeft, canvasPiece.top - sourceTop);
+        canvas.drawPicture(picture);
+        canvas.restore();
+    }
+}
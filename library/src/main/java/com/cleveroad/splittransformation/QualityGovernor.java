@@ -0,0 +1,114 @@
+package com.cleveroad.splittransformation;
+
+/**
+ * Chooses quality level of transformation from durations of frames. Level 0 is full quality,
+ * every next level interpolates grid size, snapshot scale and rotation of pieces towards lower bounds.
+ */
+class QualityGovernor {
+
+    /**
+     * Maximum quality level, the cheapest one.
+     */
+    static final int MAX_LEVEL = 3;
+
+    static final long FRAME_BUDGET_NANOS = 1000000000L / 60;
+
+    /**
+     * Frame is slow if it takes longer than budget multiplied by this factor.
+     */
+    private static final float SLOW_FRAME_FACTOR = 1.5f;
+
+    /**
+     * Minimum rotation scale at the cheapest level.
+     */
+    private static final float MIN_ROTATION_SCALE = 0.25f;
+
+    private static final int SLOW_FRAMES_TO_STEP_DOWN = 3;
+    private static final int FAST_FRAMES_TO_STEP_UP = 120;
+
+    private final int maxRows, minRows;
+    private final int maxColumns, minColumns;
+    private final float maxBitmapScale, minBitmapScale;
+    private int level;
+    private int slowFrames;
+    private int fastFrames;
+
+    /**
+     * @param maxRows        number of rows at full quality
+     * @param minRows        number of rows at the cheapest level
+     * @param maxColumns     number of columns at full quality
+     * @param minColumns     number of columns at the cheapest level
+     * @param maxBitmapScale scale of snapshots at full quality
+     * @param minBitmapScale scale of snapshots at the cheapest level
+     */
+    QualityGovernor(int maxRows, int minRows, int maxColumns, int minColumns, float maxBitmapScale, float minBitmapScale) {
+        this.maxRows = maxRows;
+        this.minRows = minRows;
+        this.maxColumns = maxColumns;
+        this.minColumns = minColumns;
+        this.maxBitmapScale = maxBitmapScale;
+        this.minBitmapScale = minBitmapScale;
+    }
+
+    /**
+     * Account duration of frame.
+     *
+     * @param frameNanos time between two consecutive frames in nanoseconds
+     * @return true if quality level was changed, false otherwise
+     */
+    boolean onFrame(long frameNanos) {
+        if (frameNanos > FRAME_BUDGET_NANOS * SLOW_FRAME_FACTOR) {
+            fastFrames = 0;
+            slowFrames++;
+            if (slowFrames >= SLOW_FRAMES_TO_STEP_DOWN && level < MAX_LEVEL) {
+                level++;
+                slowFrames = 0;
+                return true;
+            }
+        } else {
+            slowFrames = Math.max(0, slowFrames - 1);
+            fastFrames++;
+            if (fastFrames >= FAST_FRAMES_TO_STEP_UP && level > 0) {
+                level--;
+                fastFrames = 0;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Forget slow frames counted during previous swipe when new swipe starts. Fast frames are accumulated
+     * across swipes, because a single swipe is much shorter than number of frames required to step up.
+     */
+    void onSwipeStarted() {
+        slowFrames = 0;
+    }
+
+    int getLevel() {
+        return level;
+    }
+
+    int getRows() {
+        return Math.round(interpolate(maxRows, minRows));
+    }
+
+    int getColumns() {
+        return Math.round(interpolate(maxColumns, minColumns));
+    }
+
+    float getBitmapScale() {
+        return interpolate(maxBitmapScale, minBitmapScale);
+    }
+
+    /**
+     * Get multiplier of pieces' rotations.
+     */
+    float getRotationScale() {
+        return interpolate(1f, MIN_ROTATION_SCALE);
+    }
+
+    private float interpolate(float max, float min) {
+        return max - (max - min) * level / MAX_LEVEL;
+    }
+}
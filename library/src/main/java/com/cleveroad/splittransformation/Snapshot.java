@@ -0,0 +1,121 @@
+package com.cleveroad.splittransformation;
+
+import android.graphics.Bitmap;
+import android.graphics.Picture;
+import android.support.annotation.NonNull;
+
+/**
+ * Reference counted snapshot of page shared between pages and {@link SnapshotCache}.
+ * Snapshot holds either raster bitmap, tiles of raster bitmap or recorded picture.
+ * Bitmap and tiles return to pool when the last reference is released.
+ */
+class Snapshot {
+
+    /**
+     * Approximate size of recorded picture used to limit size of snapshots cache.
+     */
+    static final int PICTURE_BYTE_COUNT = 16 * 1024;
+
+    final Bitmap bitmap;
+    final Picture picture;
+    final SnapshotTiles tiles;
+    final int originalWidth, originalHeight;
+    private final BitmapPool bitmapPool;
+    private int refCount;
+    private boolean shared;
+
+    Snapshot(@NonNull BitmapPool bitmapPool, @NonNull Bitmap bitmap, int originalWidth, int originalHeight) {
+        this.bitmapPool = bitmapPool;
+        this.bitmap = bitmap;
+        this.picture = null;
+        this.tiles = null;
+        this.originalWidth = originalWidth;
+        this.originalHeight = originalHeight;
+        this.refCount = 1;
+    }
+
+    Snapshot(@NonNull BitmapPool bitmapPool, @NonNull Picture picture, int originalWidth, int originalHeight) {
+        this.bitmapPool = bitmapPool;
+        this.bitmap = null;
+        this.picture = picture;
+        this.tiles = null;
+        this.originalWidth = originalWidth;
+        this.originalHeight = originalHeight;
+        this.refCount = 1;
+    }
+
+    Snapshot(@NonNull BitmapPool bitmapPool, @NonNull SnapshotTiles tiles, int originalWidth, int originalHeight) {
+        this.bitmapPool = bitmapPool;
+        this.bitmap = null;
+        this.picture = null;
+        this.tiles = tiles;
+        this.originalWidth = originalWidth;
+        this.originalHeight = originalHeight;
+        this.refCount = 1;
+    }
+
+    /**
+     * Add reference to snapshot.
+     *
+     * @return same snapshot
+     */
+    synchronized Snapshot retain() {
+        refCount++;
+        return this;
+    }
+
+    /**
+     * Add reference to snapshot unless all references were already removed.
+     *
+     * @return true if reference was added, false if snapshot was released
+     */
+    synchronized boolean retainIfAlive() {
+        if (refCount == 0) {
+            return false;
+        }
+        refCount++;
+        return true;
+    }
+
+    /**
+     * Check if snapshot has at least one reference.
+     */
+    synchronized boolean isAlive() {
+        return refCount > 0;
+    }
+
+    /**
+     * Mark snapshot as shared by pages with identical content. Shared snapshots are never updated in place.
+     */
+    synchronized void setShared() {
+        shared = true;
+    }
+
+    synchronized boolean isShared() {
+        return shared;
+    }
+
+    /**
+     * Remove reference to snapshot.
+     */
+    synchronized void release() {
+        if (--refCount != 0) {
+            return;
+        }
+        if (bitmap != null) {
+            bitmapPool.release(bitmap);
+        } else if (tiles != null) {
+            tiles.release(bitmapPool);
+        }
+    }
+
+    /**
+     * Get number of bytes used by snapshot's bitmap or tiles or approximate size of picture.
+     */
+    int getByteCount() {
+        if (bitmap != null) {
+            return BitmapPool.getByteCount(bitmap);
+        }
+        return tiles == null ? PICTURE_BYTE_COUNT : tiles.getByteCount();
+    }
+}
@@ -0,0 +1,26 @@
+package com.cleveroad.splittransformation;
+
+import android.support.v4.util.LruCache;
+
+/**
+ * Cache of page snapshots limited by number of bytes. Keys are positions of pages in adapter.
+ */
+class SnapshotCache extends LruCache<Integer, Snapshot> {
+
+    /**
+     * @param maxSize maximum number of bytes held by cache
+     */
+    SnapshotCache(int maxSize) {
+        super(maxSize);
+    }
+
+    @Override
+    protected int sizeOf(Integer key, Snapshot value) {
+        return value.getByteCount();
+    }
+
+    @Override
+    protected void entryRemoved(boolean evicted, Integer key, Snapshot oldValue, Snapshot newValue) {
+        oldValue.release();
+    }
+}
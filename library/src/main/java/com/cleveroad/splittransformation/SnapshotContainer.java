@@ -0,0 +1,76 @@
+package com.cleveroad.splittransformation;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.graphics.Rect;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.util.AttributeSet;
+import android.view.ViewParent;
+import android.widget.FrameLayout;
+
+/**
+ * Container for inner page view that accumulates regions invalidated by its child since last snapshot.
+ * Regions are reported through {@link #invalidateChildInParent(int[], Rect)} which is called for hardware accelerated
+ * windows only before Android 8.0. If region is unknown, whole child is considered dirty.
+ */
+public class SnapshotContainer extends FrameLayout {
+
+    private final Rect dirtyRegion = new Rect();
+    private boolean fullyDirty = true;
+
+    public SnapshotContainer(Context context) {
+        this(context, null);
+    }
+
+    public SnapshotContainer(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public SnapshotContainer(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+    }
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    public SnapshotContainer(Context context, AttributeSet attrs, int defStyleAttr, int defStyleRes) {
+        super(context, attrs, defStyleAttr, defStyleRes);
+    }
+
+    @Override
+    public ViewParent invalidateChildInParent(int[] location, Rect dirty) {
+        // dirty rect is in coordinates of child at this moment
+        if (!dirty.isEmpty()) {
+            dirtyRegion.union(dirty);
+        }
+        return super.invalidateChildInParent(location, dirty);
+    }
+
+    /**
+     * Get region of child invalidated since last call of {@link #resetDirtyRegion()}.
+     *
+     * @param outRect rect that receives region in child's coordinates
+     * @return true if region is known, false if whole child must be considered dirty
+     */
+    boolean getDirtyRegion(@NonNull Rect outRect) {
+        if (fullyDirty || dirtyRegion.isEmpty()) {
+            return false;
+        }
+        outRect.set(dirtyRegion);
+        return true;
+    }
+
+    /**
+     * Mark whole child as dirty, for example when child was replaced or resized.
+     */
+    void markFullyDirty() {
+        fullyDirty = true;
+    }
+
+    /**
+     * Clear accumulated dirty region. Called when snapshot of child is generated.
+     */
+    void resetDirtyRegion() {
+        dirtyRegion.setEmpty();
+        fullyDirty = false;
+    }
+}
@@ -0,0 +1,517 @@
+package com.cleveroad.splittransformation;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.DrawFilter;
+import android.graphics.Paint;
+import android.graphics.PaintFlagsDrawFilter;
+import android.graphics.Picture;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.View;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Renders snapshots of pages into pooled bitmaps either synchronously or on background thread.
+ * Pages that exceed {@link #MAX_TEXTURE_SIZE} are recorded once and rasterized into tiles in parallel.
+ * Snapshots are clipped to viewport, so pages with long scrolling content cost as much as visible area.
+ */
+class SnapshotRenderer {
+
+    private static final int API_HARDWARE_BITMAPS = 26;
+
+    /**
+     * Config of hardware bitmaps available since Android 8.0.
+     */
+    static final Bitmap.Config HARDWARE = Build.VERSION.SDK_INT >= API_HARDWARE_BITMAPS
+            ? Bitmap.Config.valueOf("HARDWARE")
+            : null;
+
+    /**
+     * Maximum size of bitmap that can be drawn by hardware accelerated canvas on every device.
+     */
+    static final int MAX_TEXTURE_SIZE = 2048;
+
+    /**
+     * Maximum number of threads that rasterize tiles.
+     */
+    private static final int MAX_TILE_THREADS = 4;
+
+    private static ExecutorService executor;
+    private static ExecutorService tileExecutor;
+
+    private final BitmapPool bitmapPool;
+    private float bitmapScale;
+    private final Bitmap.Config config;
+    private final int tileSize;
+    private int viewportWidth, viewportHeight;
+    private final Canvas canvas;
+    private final DrawFilter drawFilter;
+    private final Rect dirtyRect;
+    private final Handler handler;
+
+    /**
+     * @param bitmapPool  pool of bitmaps
+     * @param bitmapScale scale of snapshots
+     * @param config      config of snapshots or null to choose config automatically
+     * @param filtering   true to draw bitmaps of view with filtering, false to draw them without filtering
+     * @param tileSize    size of tiles of large snapshots or 0 to render large snapshots into single bitmap
+     */
+    SnapshotRenderer(@NonNull BitmapPool bitmapPool, float bitmapScale, @Nullable Bitmap.Config config, boolean filtering,
+                     int tileSize) {
+        this(bitmapPool, bitmapScale, config, filtering, tileSize, new Canvas());
+    }
+
+    /**
+     * @param bitmapPool  pool of bitmaps
+     * @param bitmapScale scale of snapshots
+     * @param config      config of snapshots or null to choose config automatically
+     * @param filtering   true to draw bitmaps of view with filtering, false to draw them without filtering
+     * @param tileSize    size of tiles of large snapshots or 0 to render large snapshots into single bitmap
+     * @param canvas      canvas that draws views into snapshots on main thread
+     */
+    SnapshotRenderer(@NonNull BitmapPool bitmapPool, float bitmapScale, @Nullable Bitmap.Config config, boolean filtering,
+                     int tileSize, @NonNull Canvas canvas) {
+        this.bitmapPool = bitmapPool;
+        this.bitmapScale = bitmapScale;
+        this.config = config;
+        this.tileSize = tileSize;
+        this.canvas = canvas;
+        this.drawFilter = filtering
+                ? new PaintFlagsDrawFilter(0, Paint.FILTER_BITMAP_FLAG)
+                : new PaintFlagsDrawFilter(Paint.FILTER_BITMAP_FLAG, 0);
+        this.dirtyRect = new Rect();
+        this.handler = new Handler(Looper.getMainLooper());
+    }
+
+    /**
+     * Set scale of snapshots rendered after this call. Must be called on main thread.
+     *
+     * @param bitmapScale scale of snapshots
+     */
+    void setBitmapScale(float bitmapScale) {
+        this.bitmapScale = bitmapScale;
+    }
+
+    /**
+     * Set size of area where pages are displayed. Snapshots are clipped to this size and views that aren't laid out yet
+     * are measured within it. Must be called on main thread.
+     *
+     * @param viewportWidth  width of viewport or 0 if it's unknown
+     * @param viewportHeight height of viewport or 0 if it's unknown
+     */
+    void setViewport(int viewportWidth, int viewportHeight) {
+        this.viewportWidth = viewportWidth;
+        this.viewportHeight = viewportHeight;
+    }
+
+    /**
+     * Render snapshot of view on current thread. Tiles are rasterized on worker threads while current thread waits for them.
+     *
+     * @param view           some view
+     * @param tilesSupported true if transformer can draw tiled snapshots
+     * @return new snapshot
+     */
+    @NonNull
+    Snapshot render(@NonNull View view, boolean tilesSupported) {
+        prepare(view);
+        int w = getSnapshotWidth(view);
+        int h = getSnapshotHeight(view);
+        boolean hardware = isHardwareSnapshot(view);
+        if (isTiled(tilesSupported, w, h)) {
+            Picture picture = new Picture();
+            drawView(picture.beginRecording(w, h), view);
+            picture.endRecording();
+            SnapshotTiles tiles = renderTiles(picture, w, h, scaledSize(w), scaledSize(h), getRenderConfig(view), hardware);
+            return new Snapshot(bitmapPool, tiles, w, h);
+        }
+        // draw view directly into bitmap of target size, so there is no full size intermediate bitmap
+        Bitmap image = bitmapPool.acquire(scaledSize(w), scaledSize(h), getRenderConfig(view));
+        canvas.setBitmap(image);
+        canvas.setDrawFilter(drawFilter);
+        // canvas keeps its matrix when bitmap is replaced, so scale must not leak into the next snapshot
+        canvas.save();
+        canvas.scale(image.getWidth() / (float) w, image.getHeight() / (float) h);
+        drawView(canvas, view);
+        canvas.restore();
+        return new Snapshot(bitmapPool, toSnapshotBitmap(image, hardware), w, h);
+    }
+
+    /**
+     * Record view's drawing commands into picture on current thread. No bitmap is allocated.
+     *
+     * @param view some view
+     * @return new snapshot with picture
+     */
+    @NonNull
+    Snapshot renderPicture(@NonNull View view) {
+        prepare(view);
+        int w = getSnapshotWidth(view);
+        int h = getSnapshotHeight(view);
+        Picture picture = new Picture();
+        drawView(picture.beginRecording(w, h), view);
+        picture.endRecording();
+        return new Snapshot(bitmapPool, picture, w, h);
+    }
+
+    /**
+     * Get number of bytes raster snapshot of view would take.
+     */
+    int getRasterByteCount(@NonNull View view) {
+        return scaledSize(getSnapshotWidth(view)) * scaledSize(getSnapshotHeight(view))
+                * (getRenderConfig(view) == Bitmap.Config.RGB_565 ? 2 : 4);
+    }
+
+    /**
+     * Get config of bitmap that view is drawn into.
+     * Opaque views are drawn into bitmaps without alpha channel if config is chosen automatically.
+     */
+    private Bitmap.Config getRenderConfig(View view) {
+        if (config == null) {
+            return view.isOpaque() ? Bitmap.Config.RGB_565 : Bitmap.Config.ARGB_8888;
+        }
+        if (config == HARDWARE) {
+            return Bitmap.Config.ARGB_8888;
+        }
+        return config;
+    }
+
+    /**
+     * Check if snapshot must be converted to hardware bitmap. If config is chosen automatically, hardware bitmaps are used
+     * in hardware accelerated windows, because such windows don't report dirty regions since Android 8.0 and
+     * snapshots are never updated in place.
+     */
+    private boolean isHardwareSnapshot(View view) {
+        if (config == null) {
+            return HARDWARE != null && view.isHardwareAccelerated();
+        }
+        return config == HARDWARE;
+    }
+
+    /**
+     * Convert rendered bitmap to immutable hardware bitmap if necessary.
+     */
+    private Bitmap toSnapshotBitmap(Bitmap image, boolean hardware) {
+        return hardware ? bitmapPool.copy(image, HARDWARE) : image;
+    }
+
+    /**
+     * Redraw only dirty region of view into existing snapshot on current thread.
+     *
+     * @param view     some view
+     * @param snapshot snapshot of view
+     * @param dirty    dirty region in coordinates of view's visible area
+     * @return true if snapshot was updated, false if snapshot can't be updated or is shared and must be regenerated
+     */
+    boolean renderDirty(@NonNull View view, @NonNull Snapshot snapshot, @NonNull Rect dirty) {
+        Bitmap image = snapshot.bitmap;
+        if (image == null || snapshot.isShared() || !image.isMutable() || image.isRecycled()
+                || getSnapshotWidth(view) != snapshot.originalWidth || getSnapshotHeight(view) != snapshot.originalHeight) {
+            return false;
+        }
+        float scaleX = image.getWidth() / (float) snapshot.originalWidth;
+        float scaleY = image.getHeight() / (float) snapshot.originalHeight;
+        // clip to whole pixels of scaled bitmap so edges of region are redrawn completely
+        dirtyRect.set(
+                (int) Math.floor(dirty.left * scaleX),
+                (int) Math.floor(dirty.top * scaleY),
+                (int) Math.ceil(dirty.right * scaleX),
+                (int) Math.ceil(dirty.bottom * scaleY)
+        );
+        if (!dirtyRect.intersect(0, 0, image.getWidth(), image.getHeight())) {
+            return true;
+        }
+        canvas.setBitmap(image);
+        canvas.setDrawFilter(drawFilter);
+        canvas.save();
+        canvas.clipRect(dirtyRect);
+        canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+        canvas.scale(scaleX, scaleY);
+        drawView(canvas, view);
+        canvas.restore();
+        return true;
+    }
+
+    /**
+     * Record view's drawing commands on current thread and rasterize them on background thread.
+     * Callback is invoked on main thread unless job is cancelled.
+     *
+     * @param view           some view
+     * @param tilesSupported true if transformer can draw tiled snapshots
+     * @param callback       callback that receives new snapshot
+     * @return rendering job
+     */
+    @NonNull
+    Job renderAsync(@NonNull View view, boolean tilesSupported, @NonNull Callback callback) {
+        prepare(view);
+        int w = getSnapshotWidth(view);
+        int h = getSnapshotHeight(view);
+        Picture picture = new Picture();
+        drawView(picture.beginRecording(w, h), view);
+        picture.endRecording();
+        Job job = new Job(picture, w, h, scaledSize(w), scaledSize(h), getRenderConfig(view), isHardwareSnapshot(view),
+                isTiled(tilesSupported, w, h), callback);
+        job.future = getExecutor().submit(job);
+        return job;
+    }
+
+    private void prepare(View view) {
+        if (view.getWidth() == 0) {
+            view.measure(getMeasureSpec(viewportWidth), getMeasureSpec(viewportHeight));
+            view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+        }
+    }
+
+    private static int getMeasureSpec(int viewportSize) {
+        return viewportSize > 0
+                ? View.MeasureSpec.makeMeasureSpec(viewportSize, View.MeasureSpec.AT_MOST)
+                : View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+    }
+
+    /**
+     * Get width of view's area visible in viewport.
+     */
+    private int getSnapshotWidth(View view) {
+        return clipToViewport(view.getMeasuredWidth(), viewportWidth);
+    }
+
+    /**
+     * Get height of view's area visible in viewport.
+     */
+    private int getSnapshotHeight(View view) {
+        return clipToViewport(view.getMeasuredHeight(), viewportHeight);
+    }
+
+    private static int clipToViewport(int size, int viewportSize) {
+        return viewportSize > 0 ? Math.min(size, viewportSize) : size;
+    }
+
+    /**
+     * Draw visible area of view at its scroll offset.
+     */
+    private static void drawView(Canvas canvas, View view) {
+        canvas.save();
+        canvas.translate(-view.getScrollX(), -view.getScrollY());
+        view.draw(canvas);
+        canvas.restore();
+    }
+
+    private int scaledSize(int size) {
+        return Math.max(1, (int) (size * bitmapScale));
+    }
+
+    /**
+     * Check if snapshot of view with given size must be split into tiles.
+     */
+    private boolean isTiled(boolean tilesSupported, int width, int height) {
+        return tilesSupported && tileSize > 0
+                && (scaledSize(width) > MAX_TEXTURE_SIZE || scaledSize(height) > MAX_TEXTURE_SIZE);
+    }
+
+    /**
+     * Rasterize recorded picture into tiles on worker threads. Current thread waits until all tiles are ready.
+     */
+    private SnapshotTiles renderTiles(Picture picture, final int width, final int height,
+                                      final int scaledWidth, final int scaledHeight,
+                                      final Bitmap.Config renderConfig, final boolean hardware) {
+        int columns = SnapshotTiles.getTilesCount(scaledWidth, tileSize);
+        int rows = SnapshotTiles.getTilesCount(scaledHeight, tileSize);
+        final float scaleX = scaledWidth / (float) width;
+        final float scaleY = scaledHeight / (float) height;
+        List<Callable<Bitmap>> tasks = new ArrayList<>(columns * rows);
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                final int left = column * tileSize;
+                final int top = row * tileSize;
+                final int tileWidth = Math.min(tileSize, scaledWidth - left);
+                final int tileHeight = Math.min(tileSize, scaledHeight - top);
+                // older versions of picture can't be played back by several threads at once, so every tile gets its own copy
+                final Picture tilePicture = Build.VERSION.SDK_INT >= Build.VERSION_CODES.M ? picture : new Picture(picture);
+                tasks.add(new Callable<Bitmap>() {
+                    @Override
+                    public Bitmap call() throws Exception {
+                        Bitmap tile = bitmapPool.acquire(tileWidth, tileHeight, renderConfig);
+                        Canvas canvas = new Canvas(tile);
+                        canvas.setDrawFilter(drawFilter);
+                        canvas.translate(-left, -top);
+                        canvas.scale(scaleX, scaleY);
+                        canvas.drawPicture(tilePicture);
+                        return toSnapshotBitmap(tile, hardware);
+                    }
+                });
+            }
+        }
+        Bitmap[] tiles = new Bitmap[tasks.size()];
+        try {
+            List<Future<Bitmap>> futures = getTileExecutor().invokeAll(tasks);
+            for (int i = 0; i < tiles.length; i++) {
+                tiles[i] = futures.get(i).get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            for (Bitmap tile : tiles) {
+                bitmapPool.release(tile);
+            }
+            throw new IllegalStateException("Failed to render snapshot tiles", e);
+        }
+        return new SnapshotTiles(tiles, tileSize, scaledWidth, scaledHeight);
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(newThreadFactory("SnapshotRenderer"));
+        }
+        return executor;
+    }
+
+    /**
+     * Get bounded pool of threads that rasterize tiles. One core is left for main thread.
+     */
+    private static synchronized ExecutorService getTileExecutor() {
+        if (tileExecutor == null) {
+            int threads = Math.max(1, Math.min(MAX_TILE_THREADS, Runtime.getRuntime().availableProcessors() - 1));
+            tileExecutor = Executors.newFixedThreadPool(threads, newThreadFactory("SnapshotTiles"));
+        }
+        return tileExecutor;
+    }
+
+    private static ThreadFactory newThreadFactory(final String name) {
+        return new ThreadFactory() {
+            @Override
+            public Thread newThread(@NonNull final Runnable r) {
+                Thread thread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                        r.run();
+                    }
+                }, name);
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+
+    /**
+     * Callback that receives snapshots rendered on background thread.
+     */
+    interface Callback {
+
+        /**
+         * Called on main thread when snapshot is ready.
+         *
+         * @param snapshot new snapshot
+         */
+        void onSnapshotReady(@NonNull Snapshot snapshot);
+
+        /**
+         * Called on main thread when snapshot can't be rendered, for example if there is not enough memory for bitmap.
+         *
+         * @param error reason of failure
+         */
+        void onSnapshotFailed(@NonNull Throwable error);
+    }
+
+    /**
+     * Background job that rasterizes recorded picture into pooled bitmap.
+     */
+    class Job implements Runnable {
+
+        private final Picture picture;
+        private final int width, height;
+        private final int scaledWidth, scaledHeight;
+        private final Bitmap.Config renderConfig;
+        private final boolean hardware;
+        private final boolean tiled;
+        private final Callback callback;
+        private volatile boolean cancelled;
+        private Future<?> future;
+
+        private Job(Picture picture, int width, int height, int scaledWidth, int scaledHeight,
+                    Bitmap.Config renderConfig, boolean hardware, boolean tiled, Callback callback) {
+            this.picture = picture;
+            this.width = width;
+            this.height = height;
+            this.scaledWidth = scaledWidth;
+            this.scaledHeight = scaledHeight;
+            this.renderConfig = renderConfig;
+            this.hardware = hardware;
+            this.tiled = tiled;
+            this.callback = callback;
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+            final Snapshot snapshot;
+            try {
+                snapshot = render();
+            } catch (final Throwable error) {
+                // exception would be lost in future, so page must be notified to stop waiting for this job
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (!cancelled) {
+                            callback.onSnapshotFailed(error);
+                        }
+                    }
+                });
+                return;
+            }
+            handler.post(new Runnable() {
+                @Override
+                public void run() {
+                    if (cancelled) {
+                        snapshot.release();
+                    } else {
+                        callback.onSnapshotReady(snapshot);
+                    }
+                }
+            });
+        }
+
+        private Snapshot render() {
+            if (tiled) {
+                SnapshotTiles tiles = renderTiles(picture, width, height, scaledWidth, scaledHeight, renderConfig, hardware);
+                return new Snapshot(bitmapPool, tiles, width, height);
+            }
+            Bitmap image = bitmapPool.acquire(scaledWidth, scaledHeight, renderConfig);
+            try {
+                Canvas canvas = new Canvas(image);
+                canvas.setDrawFilter(drawFilter);
+                canvas.scale(scaledWidth / (float) width, scaledHeight / (float) height);
+                canvas.drawPicture(picture);
+                return new Snapshot(bitmapPool, toSnapshotBitmap(image, hardware), width, height);
+            } catch (RuntimeException | Error e) {
+                bitmapPool.release(image);
+                throw e;
+            }
+        }
+
+        /**
+         * Cancel job. Must be called on main thread.
+         */
+        void cancel() {
+            cancelled = true;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.cleveroad.splittransformation;
+
+import android.graphics.Bitmap;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Store that lets pages with identical content share one snapshot. Snapshots are found either by content key
+ * supplied by {@link ContentKeyProvider} or by hash of rendered pixels. Snapshots are marked as shared once the second
+ * page uses them, so they aren't updated in place anymore. Store doesn't hold references, so snapshot returns to pool
+ * as usual when the last page or cache releases it. Must be used on main thread.
+ */
+class SnapshotStore {
+
+    /**
+     * Number of sampled pixels along each side of bitmap used in content hash.
+     */
+    private static final int HASH_SAMPLES = 16;
+
+    private final Map<Object, Snapshot> keys = new HashMap<>();
+    private final Map<Long, ArrayList<Snapshot>> hashes = new HashMap<>();
+    private final boolean hashContent;
+
+    /**
+     * @param hashContent true to find identical snapshots by their pixels, false to use only content keys
+     */
+    SnapshotStore(boolean hashContent) {
+        this.hashContent = hashContent;
+    }
+
+    /**
+     * Get snapshot stored with content key.
+     *
+     * @param key content key
+     * @return retained snapshot or null if there is no alive snapshot with this key
+     */
+    @Nullable
+    Snapshot get(@NonNull Object key) {
+        Snapshot snapshot = keys.get(key);
+        if (snapshot == null) {
+            return null;
+        }
+        if (!snapshot.retainIfAlive()) {
+            keys.remove(key);
+            return null;
+        }
+        snapshot.setShared();
+        return snapshot;
+    }
+
+    /**
+     * Find snapshot with same content as new snapshot or store new one.
+     *
+     * @param key      content key or null if key is unknown
+     * @param snapshot new snapshot
+     * @return new snapshot or retained identical snapshot, in which case new snapshot is released
+     */
+    @NonNull
+    Snapshot deduplicate(@Nullable Object key, @NonNull Snapshot snapshot) {
+        prune();
+        if (key != null) {
+            Snapshot shared = get(key);
+            if (shared != null) {
+                snapshot.release();
+                return shared;
+            }
+            keys.put(key, snapshot);
+        }
+        if (!hashContent || !isHashable(snapshot.bitmap)) {
+            return snapshot;
+        }
+        long hash = hash(snapshot.bitmap);
+        ArrayList<Snapshot> bucket = hashes.get(hash);
+        if (bucket == null) {
+            bucket = new ArrayList<>(1);
+            hashes.put(hash, bucket);
+        }
+        for (Snapshot candidate : bucket) {
+            if (candidate.bitmap.sameAs(snapshot.bitmap) && candidate.retainIfAlive()) {
+                candidate.setShared();
+                if (key != null) {
+                    keys.put(key, candidate);
+                }
+                snapshot.release();
+                return candidate;
+            }
+        }
+        bucket.add(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Remove snapshot from store, for example when it was updated in place and doesn't match its key and hash anymore.
+     *
+     * @param snapshot some snapshot
+     */
+    void remove(@NonNull Snapshot snapshot) {
+        keys.values().removeAll(Collections.singleton(snapshot));
+        Iterator<ArrayList<Snapshot>> iterator = hashes.values().iterator();
+        while (iterator.hasNext()) {
+            ArrayList<Snapshot> bucket = iterator.next();
+            if (bucket.remove(snapshot) && bucket.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Remove snapshots that were released by all pages.
+     */
+    private void prune() {
+        Iterator<Snapshot> keysIterator = keys.values().iterator();
+        while (keysIterator.hasNext()) {
+            if (!keysIterator.next().isAlive()) {
+                keysIterator.remove();
+            }
+        }
+        Iterator<ArrayList<Snapshot>> hashesIterator = hashes.values().iterator();
+        while (hashesIterator.hasNext()) {
+            ArrayList<Snapshot> bucket = hashesIterator.next();
+            for (int i = bucket.size() - 1; i >= 0; i--) {
+                if (!bucket.get(i).isAlive()) {
+                    bucket.remove(i);
+                }
+            }
+            if (bucket.isEmpty()) {
+                hashesIterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Check if bitmap's pixels can be read and compared. Pixels of hardware bitmaps aren't accessible,
+     * bitmaps can be compared since Android 3.1.
+     */
+    private static boolean isHashable(@Nullable Bitmap bitmap) {
+        return bitmap != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB_MR1
+                && bitmap.getConfig() != null && bitmap.getConfig() != SnapshotRenderer.HARDWARE;
+    }
+
+    /**
+     * Compute hash of bitmap from grid of sampled pixels. Equal hashes are verified with {@link Bitmap#sameAs(Bitmap)}.
+     */
+    static long hash(@NonNull Bitmap bitmap) {
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+        long hash = 31 * width + height;
+        hash = 31 * hash + bitmap.getConfig().ordinal();
+        for (int i = 0; i < HASH_SAMPLES; i++) {
+            int y = (2 * i + 1) * height / (2 * HASH_SAMPLES);
+            for (int j = 0; j < HASH_SAMPLES; j++) {
+                int x = (2 * j + 1) * width / (2 * HASH_SAMPLES);
+                hash = 31 * hash + bitmap.getPixel(x, y);
+            }
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,140 @@
+package com.cleveroad.splittransformation;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Snapshot of page split into square tiles. Tiles are stored row by row, tiles in the last row and column may be smaller.
+ * Used for pages that don't fit into maximum texture size.
+ */
+public final class SnapshotTiles {
+
+    private final Bitmap[] tiles;
+    private final int tileSize;
+    private final int columns, rows;
+    private final int width, height;
+    private final Rect src = new Rect();
+    private final RectF dst = new RectF();
+
+    SnapshotTiles(@NonNull Bitmap[] tiles, int tileSize, int width, int height) {
+        this.tiles = tiles;
+        this.tileSize = tileSize;
+        this.width = width;
+        this.height = height;
+        this.columns = getTilesCount(width, tileSize);
+        this.rows = getTilesCount(height, tileSize);
+    }
+
+    /**
+     * Get number of tiles required to cover size.
+     */
+    static int getTilesCount(int size, int tileSize) {
+        return (size + tileSize - 1) / tileSize;
+    }
+
+    /**
+     * Get tile.
+     *
+     * @param row    row of tile
+     * @param column column of tile
+     * @return tile's bitmap
+     */
+    public Bitmap getTile(int row, int column) {
+        return tiles[row * columns + column];
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Get width of whole snapshot in pixels.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Get height of whole snapshot in pixels.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Get number of bytes used by all tiles.
+     */
+    int getByteCount() {
+        int byteCount = 0;
+        for (Bitmap tile : tiles) {
+            byteCount += BitmapPool.getByteCount(tile);
+        }
+        return byteCount;
+    }
+
+    /**
+     * Return all tiles to pool.
+     */
+    void release(@NonNull BitmapPool bitmapPool) {
+        for (Bitmap tile : tiles) {
+            bitmapPool.release(tile);
+        }
+    }
+
+    /**
+     * Draw piece of snapshot rotated around its center. Only tiles that piece overlaps are drawn. Must be called on main thread.
+     *
+     * @param canvas      some canvas
+     * @param canvasPiece bounds of piece on canvas
+     * @param angle       rotation angle in degrees
+     * @param left        left coordinate of piece in snapshot's pixels
+     * @param top         top coordinate of piece in snapshot's pixels
+     * @param right       right coordinate of piece in snapshot's pixels
+     * @param bottom      bottom coordinate of piece in snapshot's pixels
+     * @param paint       paint or null
+     */
+    public void drawPiece(@NonNull Canvas canvas, @NonNull RectF canvasPiece, float angle,
+                          int left, int top, int right, int bottom, @Nullable Paint paint) {
+        if (right <= left || bottom <= top) {
+            return;
+        }
+        float scaleX = canvasPiece.width() / (right - left);
+        float scaleY = canvasPiece.height() / (bottom - top);
+        int firstColumn = left / tileSize;
+        int lastColumn = Math.min(columns - 1, (right - 1) / tileSize);
+        int firstRow = top / tileSize;
+        int lastRow = Math.min(rows - 1, (bottom - 1) / tileSize);
+        canvas.save();
+        canvas.rotate(angle, canvasPiece.centerX(), canvasPiece.centerY());
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                int tileLeft = column * tileSize;
+                int tileTop = row * tileSize;
+                src.set(Math.max(left, tileLeft), Math.max(top, tileTop),
+                        Math.min(right, tileLeft + tileSize), Math.min(bottom, tileTop + tileSize));
+                dst.set(
+                        canvasPiece.left + (src.left - left) * scaleX,
+                        canvasPiece.top + (src.top - top) * scaleY,
+                        canvasPiece.left + (src.right - left) * scaleX,
+                        canvasPiece.top + (src.bottom - top) * scaleY
+                );
+                src.offset(-tileLeft, -tileTop);
+                canvas.drawBitmap(getTile(row, column), src, dst, paint);
+            }
+        }
+        canvas.restore();
+    }
+}
@@ -10,6 +10,7 @@ import android.graphics.RectF;
 import android.os.Build;
 import android.support.annotation.ColorInt;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.support.v4.content.ContextCompat;
 import android.support.v4.view.PagerAdapter;
 import android.support.v4.view.ViewPager;
@@ -30,6 +31,7 @@ public class SquareViewPagerIndicator extends View implements ViewPager.OnPageCh
     private float squareSize;
     private float spacing;
     private int debugCount;
+    private SwipeTraceRecorder swipeTraceRecorder;
 
 
     private final DataSetObserver datasetObserver = new DataSetObserver() {
@@ -147,6 +149,15 @@ public class SquareViewPagerIndicator extends View implements ViewPager.OnPageCh
         invalidate();
     }
 
+    /**
+     * Set recorder of scroll positions received by indicator.
+     *
+     * @param swipeTraceRecorder recorder or null
+     */
+    public void swipeTraceRecorder(@Nullable SwipeTraceRecorder swipeTraceRecorder) {
+        this.swipeTraceRecorder = swipeTraceRecorder;
+    }
+
     /**
      * Initialize indicator with view pager.
      *
@@ -188,31 +199,19 @@ public class SquareViewPagerIndicator extends View implements ViewPager.OnPageCh
             cx = canvas.getWidth() >> 1;
             cy = canvas.getHeight() >> 1;
         }
-        int totalCount = 2 * count - 1;
-        int halfCount = totalCount >> 1;
         float halfSize = squareSize / 2;
-        float halfSpacing = spacing / 2;
-        float startX = cx - halfCount * (squareSize + spacing);
+        float startX = SquareIndicatorGeometry.getStartX(count, cx, squareSize, spacing);
         float top = cy - halfSize;
         float bottom = cy + halfSize;
-        if (totalCount % 2 != 0) {
-            startX -= halfSize + halfSpacing;
-        }
 
-        for (int i = 0; i < totalCount; i++) {
-            // skip empty spaces
-            if (i % 2 != 0) {
-                continue;
-            }
-            float l = startX + (squareSize + spacing) * i;
+        for (int i = 0; i < count; i++) {
+            float l = SquareIndicatorGeometry.getSquareLeft(startX, i, squareSize, spacing);
             float r = l + squareSize;
             rectF.set(l, top, r, bottom);
             canvas.drawRect(rectF, squaresPaint);
         }
         canvas.save();
-        float offset = scrolledOffset * 2;
-        int i = selectedPosition * 2;
-        float l = startX + (squareSize + spacing) * (i + offset);
+        float l = SquareIndicatorGeometry.getIndicatorLeft(startX, selectedPosition, scrolledOffset, squareSize, spacing);
         float r = l + squareSize;
         rectF.set(l, top, r, bottom);
         canvas.rotate(180 * scrolledOffset, rectF.centerX(), rectF.centerY());
@@ -222,6 +221,9 @@ public class SquareViewPagerIndicator extends View implements ViewPager.OnPageCh
 
     @Override
     public void onPageScrolled(int position, float positionOffset, int positionOffsetPixels) {
+        if (swipeTraceRecorder != null) {
+            swipeTraceRecorder.recordPageScrolled(position, positionOffset);
+        }
         selectedPosition = position;
         scrolledOffset = positionOffset;
         invalidate();
@@ -0,0 +1,164 @@
+package com.cleveroad.splittransformation;
+
+import android.support.annotation.NonNull;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Swipe trace written by {@link SwipeTraceRecorder}. Trace can be replayed against
+ * {@link TransformationAdapterWrapper} or {@link SquareViewPagerIndicator} to reproduce recorded scroll sequence.
+ */
+public final class SwipeTrace {
+
+    /**
+     * Record of {@link TransformationAdapterWrapper#transformPage(android.view.View, float)} call.
+     */
+    public static final int TYPE_TRANSFORM_PAGE = 0;
+
+    /**
+     * Record of {@link SquareViewPagerIndicator#onPageScrolled(int, float, int)} call.
+     */
+    public static final int TYPE_PAGE_SCROLLED = 1;
+
+    static final int MAGIC = 0x53575452;
+    static final int VERSION = 1;
+
+    private final byte[] types;
+    private final long[] times;
+    private final int[] pages;
+    private final float[] positions;
+
+    SwipeTrace(byte[] types, long[] times, int[] pages, float[] positions) {
+        this.types = types;
+        this.times = times;
+        this.pages = pages;
+        this.positions = positions;
+    }
+
+    /**
+     * Read trace from stream. Stream isn't closed.
+     *
+     * @param inputStream stream with trace written by {@link SwipeTraceRecorder#writeTo(java.io.OutputStream)}
+     * @return trace
+     * @throws IOException if stream can't be read or doesn't contain a trace
+     */
+    @NonNull
+    public static SwipeTrace read(@NonNull InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Stream doesn't contain swipe trace");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported swipe trace version: " + version);
+        }
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Invalid number of records: " + count);
+        }
+        byte[] types = new byte[count];
+        long[] times = new long[count];
+        int[] pages = new int[count];
+        float[] positions = new float[count];
+        long time = 0;
+        for (int i = 0; i < count; i++) {
+            types[i] = in.readByte();
+            time += readVarLong(in) * 1000;
+            times[i] = time;
+            pages[i] = (int) readVarLong(in);
+            positions[i] = in.readFloat();
+        }
+        return new SwipeTrace(types, times, pages, positions);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            if (shift > 63) {
+                throw new IOException("Malformed variable length number");
+            }
+            b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * Get number of records.
+     */
+    public int size() {
+        return types.length;
+    }
+
+    /**
+     * Get type of record: {@link #TYPE_TRANSFORM_PAGE} or {@link #TYPE_PAGE_SCROLLED}.
+     */
+    public int getType(int index) {
+        return types[index];
+    }
+
+    /**
+     * Get time of record in nanoseconds relative to first record. Times are stored with microsecond precision.
+     */
+    public long getTimeNanos(int index) {
+        return times[index];
+    }
+
+    /**
+     * Get adapter position of transformed page or position of scrolled page.
+     */
+    public int getPage(int index) {
+        return pages[index];
+    }
+
+    /**
+     * Get position of transformed page relative to center or offset of scrolled page.
+     */
+    public float getPosition(int index) {
+        return positions[index];
+    }
+
+    /**
+     * Replay all records in recorded order.
+     *
+     * @param target target that receives records
+     */
+    public void replay(@NonNull Target target) {
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == TYPE_TRANSFORM_PAGE) {
+                target.onTransformPage(times[i], pages[i], positions[i]);
+            } else {
+                target.onPageScrolled(times[i], pages[i], positions[i]);
+            }
+        }
+    }
+
+    /**
+     * Receiver of replayed records.
+     */
+    public interface Target {
+
+        /**
+         * Replay transformation of page.
+         *
+         * @param timeNanos time of record relative to first record
+         * @param page      adapter position of page
+         * @param position  position of page relative to center
+         */
+        void onTransformPage(long timeNanos, int page, float position);
+
+        /**
+         * Replay scroll of view pager.
+         *
+         * @param timeNanos      time of record relative to first record
+         * @param position       position of first visible page
+         * @param positionOffset offset of first visible page
+         */
+        void onPageScrolled(long timeNanos, int position, float positionOffset);
+    }
+}
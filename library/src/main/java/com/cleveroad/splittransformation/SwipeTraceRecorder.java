@@ -0,0 +1,142 @@
+package com.cleveroad.splittransformation;
+
+import android.support.annotation.NonNull;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Recorder of scroll sequences fed to {@link TransformationAdapterWrapper} and {@link SquareViewPagerIndicator}.
+ * Records are stored in preallocated ring buffer, so recording doesn't allocate and recorder keeps only latest records.
+ * Recorder must be used on main thread.
+ */
+public class SwipeTraceRecorder {
+
+    private final byte[] types;
+    private final long[] times;
+    private final int[] pages;
+    private final float[] positions;
+    private int start;
+    private int size;
+
+    /**
+     * @param capacity maximum number of records kept by recorder
+     */
+    public SwipeTraceRecorder(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than 0");
+        }
+        types = new byte[capacity];
+        times = new long[capacity];
+        pages = new int[capacity];
+        positions = new float[capacity];
+    }
+
+    /**
+     * Record transformation of page.
+     *
+     * @param page     adapter position of page
+     * @param position position of page relative to center
+     */
+    public void recordTransformPage(int page, float position) {
+        record(SwipeTrace.TYPE_TRANSFORM_PAGE, page, position);
+    }
+
+    /**
+     * Record scroll of view pager.
+     *
+     * @param position       position of first visible page
+     * @param positionOffset offset of first visible page
+     */
+    public void recordPageScrolled(int position, float positionOffset) {
+        record(SwipeTrace.TYPE_PAGE_SCROLLED, position, positionOffset);
+    }
+
+    private void record(int type, int page, float position) {
+        int capacity = types.length;
+        int index = (start + size) % capacity;
+        if (size == capacity) {
+            start = (start + 1) % capacity;
+        } else {
+            size++;
+        }
+        types[index] = (byte) type;
+        times[index] = System.nanoTime();
+        pages[index] = page;
+        positions[index] = position;
+    }
+
+    /**
+     * Get number of kept records.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove all records.
+     */
+    public void clear() {
+        start = 0;
+        size = 0;
+    }
+
+    /**
+     * Write kept records to stream. Stream isn't closed. Times are written as deltas in microseconds,
+     * pages as variable length numbers, so common records take 6-7 bytes.
+     *
+     * @param outputStream some stream
+     * @throws IOException if records can't be written
+     */
+    public void writeTo(@NonNull OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(SwipeTrace.MAGIC);
+        out.writeByte(SwipeTrace.VERSION);
+        out.writeInt(size);
+        int capacity = types.length;
+        long firstTime = size == 0 ? 0 : times[start];
+        long previousMicros = 0;
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % capacity;
+            long micros = (times[index] - firstTime) / 1000;
+            out.writeByte(types[index]);
+            writeVarLong(out, Math.max(0, micros - previousMicros));
+            writeVarLong(out, Math.max(0, pages[index]));
+            out.writeFloat(positions[index]);
+            previousMicros = Math.max(previousMicros, micros);
+        }
+        out.flush();
+    }
+
+    /**
+     * Get kept records as trace.
+     *
+     * @return trace with copy of records
+     */
+    @NonNull
+    public SwipeTrace toTrace() {
+        int capacity = types.length;
+        byte[] traceTypes = new byte[size];
+        long[] traceTimes = new long[size];
+        int[] tracePages = new int[size];
+        float[] tracePositions = new float[size];
+        long firstTime = size == 0 ? 0 : times[start];
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % capacity;
+            traceTypes[i] = types[index];
+            traceTimes[i] = times[index] - firstTime;
+            tracePages[i] = pages[index];
+            tracePositions[i] = positions[index];
+        }
+        return new SwipeTrace(traceTypes, traceTimes, tracePages, tracePositions);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+}
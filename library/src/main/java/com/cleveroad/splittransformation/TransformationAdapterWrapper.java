@@ -1,28 +1,36 @@
 package com.cleveroad.splittransformation;
 
+import android.annotation.TargetApi;
 import android.content.Context;
+import android.database.DataSetObserver;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Picture;
 import android.graphics.Rect;
 import android.graphics.RectF;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.v4.app.Fragment;
-import android.support.v4.util.LruCache;
 import android.support.v4.view.PagerAdapter;
 import android.support.v4.view.ViewPager;
+import android.util.SparseArray;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewParent;
+import android.view.ViewTreeObserver;
 import android.widget.AdapterView;
 import android.widget.CompoundButton;
 import android.widget.EditText;
-import android.widget.FrameLayout;
 import android.widget.ProgressBar;
 import android.widget.RelativeLayout;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Random;
 
 /**
@@ -30,24 +38,123 @@ import java.util.Random;
  */
 public class TransformationAdapterWrapper extends PagerAdapter implements ViewPager.PageTransformer {
 
-    private static final int OFFSET_PAGES = 3;
+    /**
+     * The cheapest quality level used by adaptive quality.
+     *
+     * @see #getQualityLevel()
+     */
+    public static final int MAX_QUALITY_LEVEL = QualityGovernor.MAX_LEVEL;
 
-    private static final int ITEM_CONTAINER_START_ID = 1000;
+    static final int ITEM_CONTAINER_START_ID = 1000;
 
     private final LayoutInflater inflater;
     private final PagerAdapter innerAdapter;
-    private final LruCache<String, Bitmap> imagesCache;
-    private final Map<Object, ViewHolder> itemsMap;
-    private final Map<String, Float> positionsMap;
+    @Nullable
+    private final SnapshotCache snapshotCache;
+    private final SnapshotStore snapshotStore;
+    private final BitmapPool bitmapPool;
+    private final SnapshotRenderer snapshotRenderer;
+    private final SparseArray<ViewHolder> pages;
+    private final ArrayDeque<ViewHolder> pagePool;
+    private final ArrayList<ViewHolder> destroyedPages;
+    private final Rect dirtyRegion = new Rect();
+    private final Handler handler = new Handler(Looper.getMainLooper());
 
     private final int rows, columns;
     private final int marginTop;
     private final float translationX;
     private final float translationY;
     private final float piecesSpacing;
-    private final float bitmapScale;
+    private final boolean asyncSnapshots;
+    private final boolean pictureSnapshots;
+    private final boolean prefetchSnapshots;
+    private final int prefetchDepth;
+    private final int pagePoolSize;
     private final ComplexViewDetector complexViewDetector;
     private final BitmapTransformer.Factory bitmapTransformerFactory;
+    private final PieceLayout pieceLayout;
+    private final SwipeTraceRecorder swipeTraceRecorder;
+    private final MetricsCollector metricsCollector;
+    private final long seed;
+    private final QualityGovernor qualityGovernor;
+    private final FrameWatcher frameWatcher;
+
+    private ViewPager viewPager;
+    private int scrollState = ViewPager.SCROLL_STATE_IDLE;
+    private boolean prefetchScheduled;
+    private int prefetchPass;
+
+    private final ViewPager.OnPageChangeListener pageChangeListener = new ViewPager.SimpleOnPageChangeListener() {
+        @Override
+        public void onPageSelected(int position) {
+            schedulePrefetch();
+        }
+
+        @Override
+        public void onPageScrollStateChanged(int state) {
+            scrollState = state;
+            if (frameWatcher != null) {
+                if (state == ViewPager.SCROLL_STATE_IDLE) {
+                    frameWatcher.stop();
+                } else {
+                    frameWatcher.start();
+                }
+            }
+            if (state == ViewPager.SCROLL_STATE_IDLE) {
+                metricsCollector.flush();
+                schedulePrefetch();
+            }
+        }
+    };
+
+    /**
+     * Marks pages as changed if their inner views were invalidated since last draw.
+     * Dirty flags are cleared by every draw pass, so they must be checked before drawing.
+     */
+    private final ViewTreeObserver.OnPreDrawListener preDrawListener = new ViewTreeObserver.OnPreDrawListener() {
+        @Override
+        public boolean onPreDraw() {
+            for (int i = 0; i < pages.size(); i++) {
+                ViewHolder viewHolder = pages.valueAt(i);
+                if (!viewHolder.state.isContentChanged() && viewHolder.itemContainer.getChildCount() > 0
+                        && isDirty(viewHolder.itemContainer.getChildAt(0))) {
+                    viewHolder.state.setContentChanged(true);
+                }
+            }
+            return true;
+        }
+    };
+
+    private final View.OnLayoutChangeListener layoutChangeListener = new View.OnLayoutChangeListener() {
+        @Override
+        public void onLayoutChange(View v, int left, int top, int right, int bottom, int oldLeft, int oldTop, int oldRight, int oldBottom) {
+            if (right - left != oldRight - oldLeft || bottom - top != oldBottom - oldTop) {
+                markContentChanged(v.getParent());
+            }
+        }
+    };
+
+    private final ViewGroup.OnHierarchyChangeListener hierarchyChangeListener = new ViewGroup.OnHierarchyChangeListener() {
+        @Override
+        public void onChildViewAdded(View parent, View child) {
+            child.addOnLayoutChangeListener(layoutChangeListener);
+            markContentChanged((ViewParent) parent);
+        }
+
+        @Override
+        public void onChildViewRemoved(View parent, View child) {
+            child.removeOnLayoutChangeListener(layoutChangeListener);
+        }
+    };
+
+    private final MessageQueue.IdleHandler prefetchHandler = new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() {
+            // prefetch one snapshot per idle call and stay registered while there are pages without snapshots
+            prefetchScheduled = scrollState == ViewPager.SCROLL_STATE_IDLE && prefetchNext();
+            return prefetchScheduled;
+        }
+    };
 
     /**
      * Wrap existing page adapter and return a wrapper.
@@ -66,15 +173,46 @@ public class TransformationAdapterWrapper extends PagerAdapter implements ViewPa
         this.rows = builder.rows;
         this.columns = builder.columns;
         this.marginTop = builder.marginTop;
-        this.imagesCache = new LruCache<>(OFFSET_PAGES);
         this.translationX = builder.translationX;
         this.translationY = builder.translationY;
         this.piecesSpacing = builder.piecesSpacing;
         this.complexViewDetector = builder.complexViewDetector;
         this.bitmapTransformerFactory = builder.bitmapTransformerFactory;
-        this.bitmapScale = builder.bitmapScale;
-        this.itemsMap = new HashMap<>();
-        this.positionsMap = new HashMap<>();
+        this.pieceLayout = PieceLayout.obtain(rows, columns, piecesSpacing, builder.seed);
+        this.swipeTraceRecorder = builder.swipeTraceRecorder;
+        this.bitmapPool = builder.bitmapPool != null ? builder.bitmapPool : new BitmapPool(builder.bitmapPoolSize);
+        this.metricsCollector = new MetricsCollector(builder.metricsListener, bitmapPool, builder.traceSections);
+        this.seed = builder.seed;
+        if (builder.adaptiveQuality) {
+            this.qualityGovernor = new QualityGovernor(rows, builder.minRows, columns, builder.minColumns,
+                    builder.bitmapScale, builder.minBitmapScale);
+            this.frameWatcher = Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN ? new FrameWatcher(qualityGovernor) : null;
+        } else {
+            this.qualityGovernor = null;
+            this.frameWatcher = null;
+        }
+        this.asyncSnapshots = builder.asyncSnapshots;
+        this.pictureSnapshots = builder.pictureSnapshots;
+        this.prefetchSnapshots = builder.prefetchSnapshots;
+        this.prefetchDepth = builder.prefetchDepth;
+        this.pagePoolSize = builder.pagePoolSize;
+        this.pages = new SparseArray<>();
+        this.pagePool = new ArrayDeque<>();
+        this.destroyedPages = new ArrayList<>();
+        this.snapshotCache = builder.snapshotCacheSize > 0 ? new SnapshotCache(builder.snapshotCacheSize) : null;
+        this.snapshotStore = new SnapshotStore(builder.deduplicateSnapshots);
+        this.snapshotRenderer = new SnapshotRenderer(bitmapPool, builder.bitmapScale, builder.snapshotConfig, builder.snapshotFiltering,
+                builder.tileSize);
+        this.innerAdapter.registerDataSetObserver(new DataSetObserver() {
+            @Override
+            public void onChanged() {
+                super.onChanged();
+                // positions of pages could be changed, so cached snapshots aren't valid anymore
+                if (snapshotCache != null) {
+                    snapshotCache.evictAll();
+                }
+            }
+        });
     }
 
     @Override
@@ -84,65 +222,382 @@ public class TransformationAdapterWrapper extends PagerAdapter implements ViewPa
 
     @Override
     public Object instantiateItem(ViewGroup container, int position) {
-        RelativeLayout view = (RelativeLayout) inflater.inflate(R.layout.trans_pager_item_with_grid_layout, container, false);
-        ViewHolder viewHolder = new ViewHolder();
-        viewHolder.transformerView = (TransformerView) view.findViewById(R.id.split_view);
-        viewHolder.transformerView.setBitmapTransformer(bitmapTransformerFactory.newTransformer(position));
-        viewHolder.transformerView.setup(rows, columns, marginTop, translationX, translationY, piecesSpacing);
-        viewHolder.itemContainer = (FrameLayout) view.findViewById(R.id.item_container);
+        ViewHolder viewHolder = pagePool.poll();
+        if (viewHolder == null) {
+            viewHolder = createPage(container, position);
+        } else if (viewHolder.position != position) {
+            // factory may provide different transformers for different positions
+            setBitmapTransformer(viewHolder, position);
+        }
+        View view = viewHolder.page;
+        viewHolder.position = position;
+        applyQualityLevel(viewHolder);
         viewHolder.itemContainer.setId(ITEM_CONTAINER_START_ID + position);
-        viewHolder.itemContainer.setPadding(0, marginTop, 0, 0);
         container.addView(view);
+        attachTo(container);
         Object object = innerAdapter.instantiateItem(viewHolder.itemContainer, position);
         viewHolder.innerObject = object;
+        viewHolder.contentKey = innerAdapter instanceof ContentKeyProvider
+                ? ((ContentKeyProvider) innerAdapter).getContentKey(position)
+                : null;
         View v = null;
         if (object instanceof View) {
             v = (View) object;
         } else if (object instanceof Fragment) {
             v = ((Fragment) object).getView();
         }
-        if (v != null) {
-            generateBitmap(v, viewHolder.transformerView);
+        Snapshot snapshot = null;
+        if (snapshotCache != null) {
+            snapshot = snapshotCache.get(position);
+            metricsCollector.onCacheLookup(snapshot != null);
         }
-        itemsMap.put(view, viewHolder);
+        if (snapshot != null) {
+            setSnapshot(viewHolder, snapshot.retain());
+        } else if (!shareSnapshot(viewHolder)) {
+            if (v != null) {
+                generateBitmap(v, viewHolder);
+            } else {
+                // view of fragment is created later, so snapshot is captured after its first frame
+                viewHolder.firstFrameObserver.start();
+            }
+        }
+        view.setTag(viewHolder);
+        pages.put(position, viewHolder);
         return view;
     }
 
-    private void generateBitmap(View view, TransformerView transformerView) {
-        if (view.getWidth() == 0) {
-            int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
-            view.measure(spec, spec);
-            view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+    /**
+     * Inflate new page with transformer view and container for inner view.
+     */
+    private ViewHolder createPage(ViewGroup container, int position) {
+        RelativeLayout view = (RelativeLayout) inflater.inflate(R.layout.trans_pager_item_with_grid_layout, container, false);
+        ViewHolder viewHolder = new ViewHolder();
+        viewHolder.page = view;
+        viewHolder.transformerView = (TransformerView) view.findViewById(R.id.split_view);
+        viewHolder.transformerView.setMetricsCollector(metricsCollector);
+        setBitmapTransformer(viewHolder, position);
+        viewHolder.itemContainer = (SnapshotContainer) view.findViewById(R.id.item_container);
+        viewHolder.itemContainer.setPadding(0, marginTop, 0, 0);
+        viewHolder.itemContainer.setOnHierarchyChangeListener(hierarchyChangeListener);
+        viewHolder.firstFrameObserver = new FirstFrameObserver(viewHolder);
+        return viewHolder;
+    }
+
+    /**
+     * Set new bitmap transformer for page's position. Transformer is configured for full quality.
+     */
+    private void setBitmapTransformer(ViewHolder viewHolder, int position) {
+        viewHolder.transformerView.setBitmapTransformer(bitmapTransformerFactory.newTransformer(position));
+        viewHolder.transformerView.setup(rows, columns, marginTop, translationX, translationY, piecesSpacing);
+        viewHolder.transformerView.setPieceLayout(pieceLayout);
+        viewHolder.qualityLevel = 0;
+    }
+
+    /**
+     * Reconfigure page's transformer if quality level was changed since page was configured.
+     * Level is applied only to pages that aren't transformed at the moment, so it doesn't change in the middle of swipe.
+     */
+    private void applyQualityLevel(ViewHolder viewHolder) {
+        if (qualityGovernor == null || viewHolder.qualityLevel == qualityGovernor.getLevel()) {
+            return;
+        }
+        viewHolder.qualityLevel = qualityGovernor.getLevel();
+        int levelRows = qualityGovernor.getRows();
+        int levelColumns = qualityGovernor.getColumns();
+        viewHolder.transformerView.setup(levelRows, levelColumns, marginTop, translationX, translationY, piecesSpacing);
+        viewHolder.transformerView.setPieceLayout(
+                PieceLayout.obtain(levelRows, levelColumns, piecesSpacing, seed, qualityGovernor.getRotationScale()));
+        // new scale is used by next snapshots, current snapshot stays valid
+        snapshotRenderer.setBitmapScale(qualityGovernor.getBitmapScale());
+    }
+
+    /**
+     * Get current quality level of transformation. Level is always 0 unless adaptive quality is enabled with
+     * {@link Builder#adaptiveQuality(boolean)}. Greater levels use less pieces, smaller snapshots and smaller rotations of pieces.
+     *
+     * @return quality level in range [0, {@link #MAX_QUALITY_LEVEL}]
+     */
+    public int getQualityLevel() {
+        return qualityGovernor == null ? 0 : qualityGovernor.getLevel();
+    }
+
+    /**
+     * Return destroyed pages to pool. Pages are recycled only after inner adapter finished update,
+     * because fragments are removed from their containers when transaction is committed.
+     */
+    private void recycleDestroyedPages() {
+        for (int i = 0; i < destroyedPages.size(); i++) {
+            ViewHolder viewHolder = destroyedPages.get(i);
+            if (pagePool.size() < pagePoolSize && viewHolder.itemContainer.getChildCount() == 0) {
+                pagePool.offer(viewHolder);
+            }
+        }
+        destroyedPages.clear();
+    }
+
+    private void attachTo(ViewGroup container) {
+        if (viewPager == container || !(container instanceof ViewPager)) {
+            return;
+        }
+        if (viewPager != null) {
+            viewPager.removeOnPageChangeListener(pageChangeListener);
+            ViewTreeObserver observer = viewPager.getViewTreeObserver();
+            if (observer.isAlive()) {
+                observer.removeOnPreDrawListener(preDrawListener);
+            }
+        }
+        viewPager = (ViewPager) container;
+        viewPager.addOnPageChangeListener(pageChangeListener);
+        if (isTrackingSupported()) {
+            viewPager.getViewTreeObserver().addOnPreDrawListener(preDrawListener);
+        }
+    }
+
+    /**
+     * Mark page's content as changed after inner view was replaced or resized.
+     *
+     * @param parent parent of inner view
+     */
+    private void markContentChanged(ViewParent parent) {
+        if (!(parent instanceof SnapshotContainer)) {
+            return;
+        }
+        SnapshotContainer itemContainer = (SnapshotContainer) parent;
+        itemContainer.markFullyDirty();
+        ViewParent page = itemContainer.getParent();
+        if (page instanceof View) {
+            ViewHolder viewHolder = (ViewHolder) ((View) page).getTag();
+            if (viewHolder != null) {
+                viewHolder.state.setContentChanged(true);
+            }
+        }
+    }
+
+    /**
+     * Check if page's snapshot must be regenerated when page leaves front position.
+     * Uses invalidation tracking if possible, otherwise falls back to complex view detector.
+     */
+    private boolean isSnapshotStale(ViewHolder viewHolder, View innerView) {
+        if (isTrackingSupported()) {
+            return viewHolder.state.isContentChanged() || isDirty(innerView);
+        }
+        return complexViewDetector.isComplexView(innerView);
+    }
+
+    private static boolean isTrackingSupported() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP;
+    }
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private static boolean isDirty(View view) {
+        return view.isDirty();
+    }
+
+    private void schedulePrefetch() {
+        if (!prefetchSnapshots || prefetchScheduled || viewPager == null) {
+            return;
+        }
+        prefetchScheduled = true;
+        prefetchPass++;
+        Looper.myQueue().addIdleHandler(prefetchHandler);
+    }
+
+    /**
+     * Generate snapshot for the nearest page to current item that doesn't have valid snapshot or has changed content.
+     * Every page is processed at most once per prefetch pass.
+     *
+     * @return true if snapshot was generated, false if there are no pages to prefetch
+     */
+    private boolean prefetchNext() {
+        if (viewPager == null) {
+            return false;
+        }
+        int current = viewPager.getCurrentItem();
+        for (int offset = 0; offset <= prefetchDepth; offset++) {
+            if (prefetch(current + offset) || prefetch(current - offset)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean prefetch(int position) {
+        ViewHolder viewHolder = pages.get(position);
+        if (viewHolder == null || viewHolder.itemContainer.getChildCount() == 0 || viewHolder.snapshotJob != null
+                || viewHolder.firstFrameObserver.isWaiting() || viewHolder.state.getPrefetchPass() == prefetchPass) {
+            return false;
+        }
+        if (viewHolder.state.isSnapshotValid() && !viewHolder.state.isContentChanged()) {
+            return false;
+        }
+        viewHolder.state.setPrefetchPass(prefetchPass);
+        generateBitmap(viewHolder.itemContainer.getChildAt(0), viewHolder);
+        return true;
+    }
+
+    private void generateBitmap(View view, final ViewHolder viewHolder) {
+        if (viewHolder.snapshotJob != null) {
+            // wait for pending job
+            return;
+        }
+        metricsCollector.beginSection(MetricsCollector.SECTION_GENERATE_BITMAP);
+        final long startTime = metricsCollector.startTime();
+        if (viewPager != null) {
+            // snapshot covers only area of page visible below top margin
+            snapshotRenderer.setViewport(viewPager.getWidth(), Math.max(0, viewPager.getHeight() - marginTop));
+        }
+        // changes made after this moment will be tracked for the next snapshot
+        viewHolder.state.setContentChanged(false);
+        boolean regionKnown = viewHolder.itemContainer.getDirtyRegion(dirtyRegion);
+        viewHolder.itemContainer.resetDirtyRegion();
+        if (regionKnown && viewHolder.snapshot != null
+                && snapshotRenderer.renderDirty(view, viewHolder.snapshot, dirtyRegion)) {
+            // updated snapshot doesn't show content it was stored for anymore
+            snapshotStore.remove(viewHolder.snapshot);
+            viewHolder.state.setSnapshotValid(true);
+            viewHolder.transformerView.invalidate();
+            metricsCollector.onSnapshotGenerated(startTime, 0, true);
+            metricsCollector.endSection();
+            return;
+        }
+        if (pictureSnapshots && viewHolder.transformerView.supportsPicture() && PictureSnapshots.canRecord(view)) {
+            Snapshot snapshot = snapshotRenderer.renderPicture(view);
+            metricsCollector.onPictureSnapshot(snapshotRenderer.getRasterByteCount(view));
+            onSnapshotGenerated(viewHolder, snapshot, startTime);
+            metricsCollector.endSection();
+            return;
+        }
+        if (!asyncSnapshots) {
+            onSnapshotGenerated(viewHolder, snapshotRenderer.render(view, viewHolder.transformerView.supportsTiles()), startTime);
+            metricsCollector.endSection();
+            return;
+        }
+        boolean tilesSupported = viewHolder.transformerView.supportsTiles();
+        viewHolder.snapshotJob = snapshotRenderer.renderAsync(view, tilesSupported, new SnapshotRenderer.Callback() {
+            @Override
+            public void onSnapshotReady(@NonNull Snapshot snapshot) {
+                viewHolder.snapshotJob = null;
+                onSnapshotGenerated(viewHolder, snapshot, startTime);
+            }
+
+            @Override
+            public void onSnapshotFailed(@NonNull Throwable error) {
+                // page keeps showing inner view or previous snapshot, new snapshot is requested on next frame
+                viewHolder.snapshotJob = null;
+            }
+        });
+        metricsCollector.endSection();
+    }
+
+    private void onSnapshotGenerated(ViewHolder viewHolder, Snapshot snapshot, long startTime) {
+        metricsCollector.onSnapshotGenerated(startTime, snapshot.getByteCount(), false);
+        // content key describes only initial content of page
+        Object contentKey = viewHolder.snapshot == null ? viewHolder.contentKey : null;
+        Snapshot stored = snapshotStore.deduplicate(contentKey, snapshot);
+        if (stored != snapshot) {
+            metricsCollector.onSharedSnapshot();
+        }
+        if (snapshotCache != null) {
+            snapshotCache.put(viewHolder.position, stored.retain());
+        }
+        setSnapshot(viewHolder, stored);
+    }
+
+    /**
+     * Show snapshot of another page with same content key.
+     *
+     * @return true if snapshot was found, false otherwise
+     */
+    private boolean shareSnapshot(ViewHolder viewHolder) {
+        if (viewHolder.contentKey == null) {
+            return false;
+        }
+        Snapshot snapshot = snapshotStore.get(viewHolder.contentKey);
+        if (snapshot == null) {
+            return false;
+        }
+        metricsCollector.onSharedSnapshot();
+        if (snapshotCache != null) {
+            snapshotCache.put(viewHolder.position, snapshot.retain());
+        }
+        setSnapshot(viewHolder, snapshot);
+        return true;
+    }
+
+    /**
+     * Show snapshot in page's transformer view and release previous one.
+     *
+     * @param viewHolder page's view holder
+     * @param snapshot   retained snapshot or null
+     */
+    private void setSnapshot(ViewHolder viewHolder, @Nullable Snapshot snapshot) {
+        Snapshot oldSnapshot = viewHolder.snapshot;
+        viewHolder.snapshot = snapshot;
+        viewHolder.state.setSnapshotValid(snapshot != null);
+        if (snapshot == null) {
+            viewHolder.transformerView.setBitmap(null, 0, 0);
+        } else if (snapshot.picture != null) {
+            if (!viewHolder.transformerView.setPicture(snapshot.picture, snapshot.originalWidth, snapshot.originalHeight)) {
+                viewHolder.transformerView.setBitmap(null, 0, 0);
+            }
+        } else if (snapshot.tiles != null) {
+            if (!viewHolder.transformerView.setTiles(snapshot.tiles, snapshot.originalWidth, snapshot.originalHeight)) {
+                viewHolder.transformerView.setBitmap(null, 0, 0);
+            }
+        } else {
+            viewHolder.transformerView.setBitmap(snapshot.bitmap, snapshot.originalWidth, snapshot.originalHeight);
         }
-        Bitmap image = Bitmap.createBitmap(view.getMeasuredWidth(), view.getMeasuredHeight(), Bitmap.Config.ARGB_8888);
-        Canvas canvas = new Canvas(image);
-        view.draw(canvas);
-        int w = image.getWidth();
-        int h = image.getHeight();
-        Bitmap scaledImage = Bitmap.createScaledBitmap(image, (int) (image.getWidth() * bitmapScale), (int) (image.getHeight() * bitmapScale), false);
-        if (scaledImage != image) {
-            image.recycle();
+        viewHolder.transformerView.invalidate();
+        if (oldSnapshot != null) {
+            oldSnapshot.release();
         }
-        image = scaledImage;
-        imagesCache.put(view.hashCode() + "", image);
-        transformerView.setBitmap(image, w, h);
-        transformerView.invalidate();
+    }
+
+    /**
+     * Get pool of bitmaps used for page snapshots.
+     *
+     * @return bitmap pool
+     */
+    public BitmapPool getBitmapPool() {
+        return bitmapPool;
     }
 
     @Override
     public void finishUpdate(ViewGroup container) {
         super.finishUpdate(container);
         innerAdapter.finishUpdate(container);
+        recycleDestroyedPages();
+        if (scrollState == ViewPager.SCROLL_STATE_IDLE) {
+            schedulePrefetch();
+        }
     }
 
     @Override
     public void destroyItem(ViewGroup container, int position, Object object) {
         View view = (View) object;
-        ViewHolder viewHolder = itemsMap.get(object);
-        positionsMap.remove(viewHolder.itemContainer.getChildAt(0).hashCode() + "");
+        ViewHolder viewHolder = (ViewHolder) view.getTag();
+        if (viewHolder.snapshotJob != null) {
+            viewHolder.snapshotJob.cancel();
+            viewHolder.snapshotJob = null;
+        }
+        viewHolder.firstFrameObserver.stop();
         innerAdapter.destroyItem(viewHolder.itemContainer, position, viewHolder.innerObject);
-        itemsMap.remove(object);
+        setSnapshot(viewHolder, null);
+        viewHolder.state.reset();
+        viewHolder.innerObject = null;
+        viewHolder.contentKey = null;
+        viewHolder.itemContainer.resetDirtyRegion();
+        viewHolder.itemContainer.setVisibility(View.VISIBLE);
+        viewHolder.transformerView.setVisibility(View.INVISIBLE);
+        view.setTag(null);
+        view.setAlpha(1f);
+        if (pages.get(position) == viewHolder) {
+            pages.remove(position);
+        }
         container.removeView(view);
+        if (pagePoolSize > 0) {
+            destroyedPages.add(viewHolder);
+        }
     }
 
     @Override
@@ -152,32 +607,57 @@ public class TransformationAdapterWrapper extends PagerAdapter implements ViewPa
 
     @Override
     public void transformPage(View page, float position) {
+        ViewHolder viewHolder = (ViewHolder) page.getTag();
+        if (swipeTraceRecorder != null && viewHolder != null) {
+            swipeTraceRecorder.recordTransformPage(viewHolder.position, position);
+        }
+        metricsCollector.beginSection(MetricsCollector.SECTION_TRANSFORM_PAGE);
+        transformPage(page, viewHolder, position);
+        metricsCollector.endSection();
+    }
+
+    private void transformPage(View page, ViewHolder viewHolder, float position) {
         // page is off the screen
         if (position < -1 || position > 1) {
             page.setAlpha(0f);
             return;
         }
         page.setAlpha(1f);
-        ViewHolder viewHolder = itemsMap.get(page);
         if (viewHolder == null || viewHolder.itemContainer.getChildCount() == 0)
             return;
         View innerView = viewHolder.itemContainer.getChildAt(0);
-        float absPosition = Math.abs(position);
-        if (absPosition > 0) {
-            viewHolder.itemContainer.setVisibility(View.GONE);
-            viewHolder.transformerView.setVisibility(View.VISIBLE);
-            Float prevPosition = positionsMap.get(innerView.hashCode() + "");
-            // regenerate image if necessary
-            if (!viewHolder.transformerView.hasBitmap() || (prevPosition == null || prevPosition == 0) && complexViewDetector.isComplexView(innerView)) {
-                generateBitmap(innerView, viewHolder.transformerView);
+        // update page's position
+        boolean leftFront = viewHolder.state.updatePosition(position);
+        if (leftFront || position == 0) {
+            applyQualityLevel(viewHolder);
+        }
+        if (position != 0) {
+            if (snapshotCache != null && !viewHolder.transformerView.hasSnapshot()) {
+                Snapshot snapshot = snapshotCache.get(viewHolder.position);
+                metricsCollector.onCacheLookup(snapshot != null);
+                if (snapshot != null) {
+                    setSnapshot(viewHolder, snapshot.retain());
+                }
+            }
+            if (leftFront && isSnapshotStale(viewHolder, innerView)) {
+                viewHolder.state.setSnapshotValid(false);
+                metricsCollector.onStaleSnapshot();
+            }
+            // regenerate image if necessary, snapshot of view that wasn't drawn yet is captured after its first frame
+            if (!viewHolder.state.isSnapshotValid() && !viewHolder.firstFrameObserver.isWaiting()) {
+                generateBitmap(innerView, viewHolder);
             }
+        }
+        // show inner view until snapshot is ready
+        boolean showSnapshot = position != 0 && viewHolder.transformerView.hasSnapshot();
+        if (viewHolder.state.setSnapshotShown(showSnapshot)) {
+            // switching between VISIBLE and INVISIBLE doesn't request layout, unlike GONE
+            viewHolder.itemContainer.setVisibility(showSnapshot ? View.INVISIBLE : View.VISIBLE);
+            viewHolder.transformerView.setVisibility(showSnapshot ? View.VISIBLE : View.INVISIBLE);
+        }
+        if (showSnapshot) {
             viewHolder.transformerView.onTransformPage(position);
-        } else {
-            viewHolder.itemContainer.setVisibility(View.VISIBLE);
-            viewHolder.transformerView.setVisibility(View.GONE);
         }
-        // update page's position
-        positionsMap.put(innerView.hashCode() + "", position);
     }
 
     private static class ComplexViewDetectorImpl implements ComplexViewDetector {
@@ -197,20 +677,24 @@ public class TransformationAdapterWrapper extends PagerAdapter implements ViewPa
         }
     }
 
-    private static class BitmapTransformerImpl implements BitmapTransformer {
+    private static class BitmapTransformerImpl implements BitmapTransformer, BitmapTransformer.CullingStatistics,
+            BitmapTransformer.SharedLayout, BitmapTransformer.PictureSource, BitmapTransformer.TiledSource {
 
-        private final Random random = new Random();
         private final RectF canvasPiece = new RectF();
         private final Rect bitmapPiece = new Rect();
+        private final Rect clipBounds = new Rect();
+        private int drawnPieces, culledPieces;
         private int rows, cols;
         private int marginTop;
         private float translationX, translationY;
-        private float[] randomSpacingsX;
-        private float[] randomSpacingsY;
-        private float[] randomRotations;
+        private float piecesSpacing;
+        private PieceLayout pieceLayout;
+        private PieceFrame pieceFrame;
         private Bitmap bitmap;
+        private Picture picture;
+        private SnapshotTiles tiles;
         private int originalWidth, originalHeight;
-        private float position, absPosition;
+        private float position;
 
         @Override
         public void setup(int rows, int cols, int marginTop, float translationX, float translationY, float piecesSpacing) {
@@ -219,59 +703,87 @@ public class TransformationAdapterWrapper extends PagerAdapter implements ViewPa
             this.marginTop = marginTop;
             this.translationX = translationX;
             this.translationY = translationY;
-            int pieces = rows * cols;
-            randomSpacingsX = new float[pieces];
-            randomSpacingsY = new float[pieces];
-            randomRotations = new float[pieces];
-            for (int i = 0; i < pieces; i++) {
-                randomSpacingsX[i] = piecesSpacing + random.nextFloat() * piecesSpacing / 4 * (random.nextBoolean() ? 1 : -1);
-                randomSpacingsY[i] = piecesSpacing + random.nextFloat() * piecesSpacing / 4 * (random.nextBoolean() ? 1 : -1);
-                randomRotations[i] = 20 + random.nextFloat() * 70 * (random.nextBoolean() ? 1 : -1);
-            }
+            this.piecesSpacing = piecesSpacing;
+            this.pieceLayout = null;
+            this.pieceFrame = new PieceFrame(rows, cols);
+        }
+
+        @Override
+        public void setPieceLayout(@NonNull PieceLayout pieceLayout) {
+            this.pieceLayout = pieceLayout;
         }
 
         @Override
         public void setBitmap(Bitmap bitmap, int originalWidth, int originalHeight) {
             this.bitmap = bitmap;
+            this.picture = null;
+            this.tiles = null;
+            this.originalWidth = originalWidth;
+            this.originalHeight = originalHeight;
+        }
+
+        @Override
+        public void setPicture(@Nullable Picture picture, int originalWidth, int originalHeight) {
+            this.bitmap = null;
+            this.picture = picture;
+            this.tiles = null;
+            this.originalWidth = originalWidth;
+            this.originalHeight = originalHeight;
+        }
+
+        @Override
+        public void setTiles(@Nullable SnapshotTiles tiles, int originalWidth, int originalHeight) {
+            this.bitmap = null;
+            this.picture = null;
+            this.tiles = tiles;
             this.originalWidth = originalWidth;
             this.originalHeight = originalHeight;
         }
 
         @Override
         public void onDraw(@NonNull Canvas canvas) {
-            if (bitmap != null) {
+            drawnPieces = 0;
+            culledPieces = 0;
+            if (bitmap != null || picture != null || tiles != null) {
+                if (!canvas.getClipBounds(clipBounds)) {
+                    culledPieces = rows * cols;
+                    return;
+                }
+                if (pieceLayout == null) {
+                    pieceLayout = new PieceLayout(rows, cols, piecesSpacing, new Random().nextLong());
+                }
                 float left = (canvas.getWidth() - originalWidth) / 2;
                 float top = marginTop;
                 int wStep = originalWidth / cols;
                 int hStep = originalHeight / rows;
-                int wBmStep = bitmap.getWidth() / cols;
-                int hBmStep = bitmap.getHeight() / rows;
+                int wBmStep = bitmap != null ? bitmap.getWidth() / cols : tiles != null ? tiles.getWidth() / cols : 0;
+                int hBmStep = bitmap != null ? bitmap.getHeight() / rows : tiles != null ? tiles.getHeight() / rows : 0;
+                drawnPieces = pieceFrame.compute(pieceLayout, position, left, top, wStep, hStep, translationX, translationY,
+                        clipBounds.left, clipBounds.top, clipBounds.right, clipBounds.bottom);
+                culledPieces = rows * cols - drawnPieces;
                 for (int i = 0; i < rows; i++) {
                     for (int j = 0; j < cols; j++) {
                         int index = i * cols + j;
-                        float tX;
-                        if (position < 0) {
-                            tX = (-translationX - randomSpacingsX[index] * (cols - j)) * absPosition;
-                        } else {
-                            tX = (translationX + randomSpacingsX[index] * j) * absPosition;
-                        }
-                        float tY = (translationY - randomSpacingsY[index] * (rows - i)) * absPosition;
-                        bitmapPiece.set(wBmStep * j, hBmStep * i, wBmStep * (j + 1), hBmStep * (i + 1));
-                        canvasPiece.set(
-                                wStep * j + left + tX,
-                                hStep * i + top + tY,
-                                wStep * (j + 1) + left + tX,
-                                hStep * (i + 1) + top + tY
-                        );
                         // draw only visible pieces
-                        if (canvasPiece.left < canvas.getWidth() || canvasPiece.right > 0 ||
-                                canvasPiece.top < canvas.getHeight() || canvasPiece.bottom > 0) {
-                            float angle = randomRotations[index] * absPosition;
-                            canvas.save();
-                            canvas.rotate(angle, canvasPiece.centerX(), canvasPiece.centerY());
-                            canvas.drawBitmap(bitmap, bitmapPiece, canvasPiece, null);
-                            canvas.restore();
+                        if (!pieceFrame.isVisible(index)) {
+                            continue;
+                        }
+                        canvasPiece.set(pieceFrame.getLeft(index), pieceFrame.getTop(index),
+                                pieceFrame.getRight(index), pieceFrame.getBottom(index));
+                        if (picture != null) {
+                            PictureSnapshots.drawPiece(canvas, picture, canvasPiece, pieceFrame.getAngle(index), wStep * j, hStep * i);
+                            continue;
                         }
+                        if (tiles != null) {
+                            tiles.drawPiece(canvas, canvasPiece, pieceFrame.getAngle(index),
+                                    wBmStep * j, hBmStep * i, wBmStep * (j + 1), hBmStep * (i + 1), null);
+                            continue;
+                        }
+                        bitmapPiece.set(wBmStep * j, hBmStep * i, wBmStep * (j + 1), hBmStep * (i + 1));
+                        canvas.save();
+                        canvas.rotate(pieceFrame.getAngle(index), canvasPiece.centerX(), canvasPiece.centerY());
+                        canvas.drawBitmap(bitmap, bitmapPiece, canvasPiece, null);
+                        canvas.restore();
                     }
                 }
             }
@@ -280,7 +792,16 @@ public class TransformationAdapterWrapper extends PagerAdapter implements ViewPa
         @Override
         public void onTransformPage(float position) {
             this.position = position;
-            this.absPosition = Math.abs(position);
+        }
+
+        @Override
+        public int getDrawnPiecesCount() {
+            return drawnPieces;
+        }
+
+        @Override
+        public int getCulledPiecesCount() {
+            return culledPieces;
         }
 
         private static class Factory implements BitmapTransformer.Factory {
@@ -298,6 +819,11 @@ public class TransformationAdapterWrapper extends PagerAdapter implements ViewPa
      */
     private static class ViewHolder {
 
+        /**
+         * Root view of page.
+         */
+        private View page;
+
         /**
          * Layout with splitted images.
          */
@@ -306,12 +832,122 @@ public class TransformationAdapterWrapper extends PagerAdapter implements ViewPa
         /**
          * Container for inner view.
          */
-        private FrameLayout itemContainer;
+        private SnapshotContainer itemContainer;
 
         /**
          * Inner object created by {@link PagerAdapter#instantiateItem(ViewGroup, int)} method.
          */
         private Object innerObject;
+
+        /**
+         * Key of page's content provided by {@link ContentKeyProvider} or null.
+         */
+        private Object contentKey;
+
+        /**
+         * Position of page in adapter.
+         */
+        private int position;
+
+        /**
+         * Snapshot displayed by transformer view.
+         */
+        private Snapshot snapshot;
+
+        /**
+         * Pending job that renders snapshot on background thread.
+         */
+        private SnapshotRenderer.Job snapshotJob;
+
+        /**
+         * Quality level the page's transformer is configured for.
+         */
+        private int qualityLevel;
+
+        /**
+         * Observer that captures snapshot after first frame of inner view created after page.
+         */
+        private FirstFrameObserver firstFrameObserver;
+
+        /**
+         * State of page updated on every frame.
+         */
+        private final PageState state = new PageState();
+    }
+
+    /**
+     * Waits until inner view added after instantiation of page, for example fragment's view, is laid out and drawn,
+     * and captures its snapshot right after that frame. So snapshot is ready before swipe and view is never measured
+     * without size of page.
+     */
+    private class FirstFrameObserver implements ViewTreeObserver.OnPreDrawListener, Runnable {
+
+        private final ViewHolder viewHolder;
+        private ViewTreeObserver observer;
+        private boolean waiting;
+
+        FirstFrameObserver(ViewHolder viewHolder) {
+            this.viewHolder = viewHolder;
+        }
+
+        /**
+         * Start waiting for first frame of inner view.
+         */
+        void start() {
+            stop();
+            waiting = true;
+            observer = viewHolder.itemContainer.getViewTreeObserver();
+            observer.addOnPreDrawListener(this);
+        }
+
+        /**
+         * Stop waiting without capturing snapshot.
+         */
+        void stop() {
+            waiting = false;
+            removeListener();
+            handler.removeCallbacks(this);
+        }
+
+        boolean isWaiting() {
+            return waiting;
+        }
+
+        @Override
+        public boolean onPreDraw() {
+            SnapshotContainer itemContainer = viewHolder.itemContainer;
+            if (itemContainer.getChildCount() > 0 && itemContainer.getChildAt(0).getWidth() > 0) {
+                removeListener();
+                // capture after this frame is drawn
+                handler.post(this);
+            }
+            return true;
+        }
+
+        @Override
+        public void run() {
+            waiting = false;
+            if (viewHolder.innerObject == null || viewHolder.itemContainer.getChildCount() == 0
+                    || viewHolder.state.isSnapshotValid()) {
+                return;
+            }
+            generateBitmap(viewHolder.itemContainer.getChildAt(0), viewHolder);
+        }
+
+        private void removeListener() {
+            if (observer == null) {
+                return;
+            }
+            // observer is replaced when view is attached to window
+            if (observer.isAlive()) {
+                observer.removeOnPreDrawListener(this);
+            }
+            ViewTreeObserver current = viewHolder.itemContainer.getViewTreeObserver();
+            if (current != observer && current.isAlive()) {
+                current.removeOnPreDrawListener(this);
+            }
+            observer = null;
+        }
     }
 
     public static class Builder {
@@ -321,6 +957,11 @@ public class TransformationAdapterWrapper extends PagerAdapter implements ViewPa
         private static final int DEFAULT_ROWS = 8;
         private static final int DEFAULT_COLUMNS = 8;
         private static final float DEFAULT_BITMAP_SCALE = 1.0f;
+        private static final int DEFAULT_BITMAP_POOL_SIZE = (int) (Runtime.getRuntime().maxMemory() / 16);
+        private static final int DEFAULT_SNAPSHOT_CACHE_SIZE = (int) (Runtime.getRuntime().maxMemory() / 8);
+        private static final int DEFAULT_PREFETCH_DEPTH = 1;
+        private static final int DEFAULT_PAGE_POOL_SIZE = 2;
+        private static final int DEFAULT_TILE_SIZE = 512;
 
         private final PagerAdapter innerAdapter;
         private final Context context;
@@ -331,6 +972,25 @@ public class TransformationAdapterWrapper extends PagerAdapter implements ViewPa
         private float translationY;
         private float piecesSpacing;
         private float bitmapScale;
+        private int bitmapPoolSize;
+        private BitmapPool bitmapPool;
+        private int snapshotCacheSize;
+        private boolean asyncSnapshots;
+        private boolean pictureSnapshots;
+        private boolean deduplicateSnapshots;
+        private boolean snapshotFiltering;
+        private Bitmap.Config snapshotConfig;
+        private int tileSize;
+        private boolean prefetchSnapshots;
+        private int prefetchDepth;
+        private int pagePoolSize;
+        private long seed;
+        private SwipeTraceRecorder swipeTraceRecorder;
+        private TransformationMetricsListener metricsListener;
+        private boolean traceSections;
+        private boolean adaptiveQuality;
+        private int minRows, minColumns;
+        private float minBitmapScale;
 
         private ComplexViewDetector complexViewDetector;
         private BitmapTransformer.Factory bitmapTransformerFactory;
@@ -343,6 +1003,15 @@ public class TransformationAdapterWrapper extends PagerAdapter implements ViewPa
             this.translationX = context.getResources().getDimension(R.dimen.trans_translation_x);
             this.translationY = context.getResources().getDimension(R.dimen.trans_translation_y);
             this.bitmapScale = DEFAULT_BITMAP_SCALE;
+            this.snapshotFiltering = true;
+            this.snapshotConfig = Bitmap.Config.ARGB_8888;
+            this.tileSize = DEFAULT_TILE_SIZE;
+            this.bitmapPoolSize = DEFAULT_BITMAP_POOL_SIZE;
+            this.snapshotCacheSize = DEFAULT_SNAPSHOT_CACHE_SIZE;
+            this.prefetchSnapshots = true;
+            this.prefetchDepth = DEFAULT_PREFETCH_DEPTH;
+            this.pagePoolSize = DEFAULT_PAGE_POOL_SIZE;
+            this.seed = new Random().nextLong();
         }
 
         /**
@@ -406,7 +1075,9 @@ public class TransformationAdapterWrapper extends PagerAdapter implements ViewPa
         }
 
         /**
-         * Set complex view detector.
+         * Set complex view detector. Before Android 5.0 content changes can't be tracked, so snapshots of complex views
+         * are regenerated every time page leaves front position. On newer versions snapshots are regenerated only
+         * if page's content was invalidated.
          *
          * @param complexViewDetector detector or null
          */
@@ -416,7 +1087,9 @@ public class TransformationAdapterWrapper extends PagerAdapter implements ViewPa
         }
 
         /**
-         * Set factory that produces bitmap transformers.
+         * Set factory that produces bitmap transformers. {@link MeshBitmapTransformer.Factory} draws all pieces with single
+         * call only on software canvases and on hardware accelerated canvases since API 29, on older versions pieces are
+         * drawn one by one. Use {@link MeshBitmapTransformer#isSingleDrawCall()} to check which way was used.
          *
          * @param bitmapTransformerFactory factory or null
          */
@@ -435,6 +1108,256 @@ public class TransformationAdapterWrapper extends PagerAdapter implements ViewPa
             return this;
         }
 
+        /**
+         * Enable filtering of bitmaps drawn by views when snapshot is scaled down with {@link #bitmapScale(float)}.
+         * Disabling filtering makes snapshots a bit cheaper at cost of quality. Default value: true.
+         *
+         * @param snapshotFiltering true to enable filtering
+         */
+        public Builder snapshotFiltering(boolean snapshotFiltering) {
+            this.snapshotFiltering = snapshotFiltering;
+            return this;
+        }
+
+        /**
+         * Set pixel format of snapshots. Pass null to choose format automatically: opaque pages are stored as
+         * {@link Bitmap.Config#RGB_565} and, since Android 8.0, snapshots in hardware accelerated windows are
+         * stored as immutable hardware bitmaps. Default value: {@link Bitmap.Config#ARGB_8888}.
+         *
+         * @param snapshotConfig pixel format of snapshots or null
+         */
+        public Builder snapshotConfig(@Nullable Bitmap.Config snapshotConfig) {
+            this.snapshotConfig = snapshotConfig;
+            return this;
+        }
+
+        /**
+         * Set maximum size of bitmap pool in bytes. Pooled bitmaps are reused for page snapshots. Default value: 1/16 of max memory.
+         *
+         * @param bitmapPoolSize maximum size of bitmap pool in bytes. Pass 0 to disable pooling
+         */
+        public Builder bitmapPoolSize(int bitmapPoolSize) {
+            this.bitmapPoolSize = bitmapPoolSize;
+            return this;
+        }
+
+        /**
+         * Use existing bitmap pool instead of creating a new one with {@link #bitmapPoolSize(int)} size.
+         */
+        Builder bitmapPool(@Nullable BitmapPool bitmapPool) {
+            this.bitmapPool = bitmapPool;
+            return this;
+        }
+
+        /**
+         * Set maximum size of snapshots cache in bytes. Cached snapshots are reused when page is instantiated again. Default value: 1/8 of max memory.
+         *
+         * @param snapshotCacheSize maximum size of snapshots cache in bytes. Pass 0 to disable caching
+         */
+        public Builder snapshotCacheSize(int snapshotCacheSize) {
+            this.snapshotCacheSize = snapshotCacheSize;
+            return this;
+        }
+
+        /**
+         * Enable sharing of one snapshot by pages with identical rendered content. Snapshots are compared by hash of
+         * sampled pixels and then pixel by pixel, so memory scales with number of distinct pages. Stored snapshots
+         * aren't updated in place when page changes. Pages of adapters that implement {@link ContentKeyProvider}
+         * share snapshots by their keys even if this option is disabled. Default value: false.
+         *
+         * @param deduplicateSnapshots true to share snapshots of pages with identical content
+         */
+        public Builder deduplicateSnapshots(boolean deduplicateSnapshots) {
+            this.deduplicateSnapshots = deduplicateSnapshots;
+            return this;
+        }
+
+        /**
+         * Set size of tiles in pixels. Snapshots wider or taller than 2048 pixels are split into tiles rasterized
+         * in parallel, so they never exceed maximum texture size. Tiles are used only if bitmap transformer implements
+         * {@link BitmapTransformer.TiledSource}. Default value: 512.
+         *
+         * @param tileSize size of tiles in range {@code [0, 2048]}. Pass 0 to render large snapshots into single bitmap
+         */
+        public Builder tileSize(int tileSize) {
+            this.tileSize = tileSize;
+            return this;
+        }
+
+        /**
+         * Enable rendering of snapshots on background thread. View's drawing commands are recorded on main thread
+         * and rasterized on background thread. Inner view is shown until snapshot is ready. Default value: false.
+         *
+         * @param asyncSnapshots true to render snapshots on background thread
+         */
+        public Builder asyncSnapshots(boolean asyncSnapshots) {
+            this.asyncSnapshots = asyncSnapshots;
+            return this;
+        }
+
+        /**
+         * Enable snapshots recorded into {@link android.graphics.Picture} instead of bitmaps. Pictures are replayed for every piece,
+         * so no bitmap is allocated. It's cheaper in memory for pages with text and shapes. Raster snapshots are used
+         * if page contains surface view, texture view or web view, if bitmap transformer doesn't implement
+         * {@link BitmapTransformer.PictureSource} and in hardware accelerated windows before Android 6.0. Default value: false.
+         *
+         * @param pictureSnapshots true to record snapshots into pictures
+         */
+        public Builder pictureSnapshots(boolean pictureSnapshots) {
+            this.pictureSnapshots = pictureSnapshots;
+            return this;
+        }
+
+        /**
+         * Enable generation of snapshots for pages around current item while view pager is idle. Default value: true.
+         *
+         * @param prefetchSnapshots true to prefetch snapshots
+         */
+        public Builder prefetchSnapshots(boolean prefetchSnapshots) {
+            this.prefetchSnapshots = prefetchSnapshots;
+            return this;
+        }
+
+        /**
+         * Set number of pages on each side of current item which snapshots are prefetched. Pages must be instantiated by view pager,
+         * so consider increasing {@link ViewPager#setOffscreenPageLimit(int)} for depth greater than 1. Default value: 1.
+         *
+         * @param prefetchDepth number of pages on each side of current item
+         */
+        public Builder prefetchDepth(int prefetchDepth) {
+            this.prefetchDepth = prefetchDepth;
+            return this;
+        }
+
+        /**
+         * Set maximum number of destroyed pages kept for reuse. Recycled pages keep their transformer views and
+         * bitmap transformers, so new pages aren't inflated during flings. Default value: 2.
+         *
+         * @param pagePoolSize maximum number of recycled pages. Pass 0 to disable recycling
+         */
+        public Builder pagePoolSize(int pagePoolSize) {
+            this.pagePoolSize = pagePoolSize;
+            return this;
+        }
+
+        /**
+         * Set seed of random layout of pieces. All pages of wrapper share the same layout,
+         * so equal seeds produce the same explosion. Default value: random seed.
+         *
+         * @param seed seed of random layout
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Set recorder of positions passed to {@link TransformationAdapterWrapper#transformPage(View, float)}.
+         * Recorded traces can be replayed in tests and benchmarks. Default value: null.
+         *
+         * @param swipeTraceRecorder recorder or null
+         */
+        public Builder swipeTraceRecorder(@Nullable SwipeTraceRecorder swipeTraceRecorder) {
+            this.swipeTraceRecorder = swipeTraceRecorder;
+            return this;
+        }
+
+        /**
+         * Set listener that receives batched metrics of snapshots, caches and drawing. Default value: null.
+         *
+         * @param metricsListener listener or null
+         */
+        public Builder metricsListener(@Nullable TransformationMetricsListener metricsListener) {
+            this.metricsListener = metricsListener;
+            return this;
+        }
+
+        /**
+         * Enable {@link android.os.Trace} sections around snapshot generation, page transformation and drawing,
+         * so they are visible in system traces. Available since Android 4.3. Default value: false.
+         *
+         * @param traceSections true to add trace sections
+         */
+        public Builder traceSections(boolean traceSections) {
+            this.traceSections = traceSections;
+            return this;
+        }
+
+        /**
+         * Choose number of pieces, scale and pixel format of snapshots and sizes of caches for current device
+         * with {@link DefaultTuningTable}. Options set after this call override chosen ones.
+         */
+        public Builder autoTune() {
+            return autoTune(new DefaultTuningTable());
+        }
+
+        /**
+         * Choose number of pieces, scale and pixel format of snapshots and sizes of caches for current device
+         * with custom decision table. Options set after this call override chosen ones.
+         *
+         * @param tuningTable decision table
+         */
+        public Builder autoTune(@NonNull TuningTable tuningTable) {
+            return tune(tuningTable.tune(DeviceProfile.from(context)));
+        }
+
+        /**
+         * Apply configuration chosen by decision table.
+         */
+        Builder tune(@NonNull Tuning tuning) {
+            this.rows = tuning.getRows();
+            this.columns = tuning.getColumns();
+            this.bitmapScale = tuning.getBitmapScale();
+            this.snapshotConfig = tuning.getSnapshotConfig();
+            this.snapshotCacheSize = tuning.getSnapshotCacheSize();
+            this.bitmapPoolSize = tuning.getBitmapPoolSize();
+            return this;
+        }
+
+        /**
+         * Enable adaptive quality. While view pager is scrolled, durations of frames are watched and when frames miss
+         * their budget, number of pieces, scale of snapshots and rotation of pieces are stepped down
+         * to bounds set with {@link #minRows(int)}, {@link #minColumns(int)} and {@link #minBitmapScale(float)}.
+         * Quality is stepped back up when frames fit their budget. New quality is applied at the start of next swipe.
+         * Available since Android 4.1. Default value: false.
+         *
+         * @param adaptiveQuality true to enable adaptive quality
+         */
+        public Builder adaptiveQuality(boolean adaptiveQuality) {
+            this.adaptiveQuality = adaptiveQuality;
+            return this;
+        }
+
+        /**
+         * Set minimum number of rows used by adaptive quality. Default value: half of rows, but not lower than 2.
+         *
+         * @param minRows minimum number of rows
+         */
+        public Builder minRows(int minRows) {
+            this.minRows = minRows;
+            return this;
+        }
+
+        /**
+         * Set minimum number of columns used by adaptive quality. Default value: half of columns, but not lower than 2.
+         *
+         * @param minColumns minimum number of columns
+         */
+        public Builder minColumns(int minColumns) {
+            this.minColumns = minColumns;
+            return this;
+        }
+
+        /**
+         * Set minimum scale of snapshots used by adaptive quality. Default value: half of bitmap scale.
+         *
+         * @param minBitmapScale minimum scale coefficient in range {@code (0, bitmapScale]}
+         */
+        public Builder minBitmapScale(float minBitmapScale) {
+            this.minBitmapScale = minBitmapScale;
+            return this;
+        }
+
         /**
          * Create new wrapper.
          *
@@ -453,6 +1376,42 @@ public class TransformationAdapterWrapper extends PagerAdapter implements ViewPa
             if (bitmapScale <= 0 || bitmapScale > 1) {
                 throw new IllegalArgumentException("Bitmap scale coefficient must be in range (0, 1]");
             }
+            if (snapshotConfig == Bitmap.Config.ALPHA_8) {
+                throw new IllegalArgumentException("Snapshots can't be stored as ALPHA_8 bitmaps");
+            }
+            if (bitmapPoolSize < 0) {
+                throw new IllegalArgumentException("Bitmap pool size can't be lower than 0");
+            }
+            if (snapshotCacheSize < 0) {
+                throw new IllegalArgumentException("Snapshot cache size can't be lower than 0");
+            }
+            if (tileSize < 0 || tileSize > SnapshotRenderer.MAX_TEXTURE_SIZE) {
+                throw new IllegalArgumentException("Tile size must be in range [0, " + SnapshotRenderer.MAX_TEXTURE_SIZE + "]");
+            }
+            if (prefetchDepth < 0) {
+                throw new IllegalArgumentException("Prefetch depth can't be lower than 0");
+            }
+            if (pagePoolSize < 0) {
+                throw new IllegalArgumentException("Page pool size can't be lower than 0");
+            }
+            if (minRows == 0) {
+                minRows = Math.max(MIN_ROWS, rows / 2);
+            }
+            if (minColumns == 0) {
+                minColumns = Math.max(MIN_COLUMNS, columns / 2);
+            }
+            if (minBitmapScale == 0) {
+                minBitmapScale = bitmapScale / 2;
+            }
+            if (minRows < MIN_ROWS || minRows > rows) {
+                throw new IllegalArgumentException("Minimum rows must be in range [" + MIN_ROWS + ", rows]");
+            }
+            if (minColumns < MIN_COLUMNS || minColumns > columns) {
+                throw new IllegalArgumentException("Minimum columns must be in range [" + MIN_COLUMNS + ", columns]");
+            }
+            if (minBitmapScale <= 0 || minBitmapScale > bitmapScale) {
+                throw new IllegalArgumentException("Minimum bitmap scale must be in range (0, bitmapScale]");
+            }
             if (complexViewDetector == null) {
                 complexViewDetector = new ComplexViewDetectorImpl();
             }
@@ -0,0 +1,185 @@
+package com.cleveroad.splittransformation;
+
+/**
+ * Metrics of transformation pipeline collected since previous batch.
+ *
+ * @see TransformationMetricsListener
+ */
+public final class TransformationMetrics {
+
+    /**
+     * Maximum number of frames in single batch.
+     */
+    public static final int BATCH_FRAMES = 60;
+
+    int frames;
+    long drawNanos;
+    long maxDrawNanos;
+    int drawnPieces;
+    int culledPieces;
+    int snapshots;
+    int incrementalSnapshots;
+    long snapshotNanos;
+    long maxSnapshotNanos;
+    long snapshotBytes;
+    int pictureSnapshots;
+    long savedBytes;
+    int sharedSnapshots;
+    int cacheHits;
+    int cacheMisses;
+    int poolHits;
+    int poolMisses;
+    int staleSnapshots;
+
+    TransformationMetrics() {
+    }
+
+    void reset() {
+        frames = 0;
+        drawNanos = 0;
+        maxDrawNanos = 0;
+        drawnPieces = 0;
+        culledPieces = 0;
+        snapshots = 0;
+        incrementalSnapshots = 0;
+        snapshotNanos = 0;
+        maxSnapshotNanos = 0;
+        snapshotBytes = 0;
+        pictureSnapshots = 0;
+        savedBytes = 0;
+        sharedSnapshots = 0;
+        cacheHits = 0;
+        cacheMisses = 0;
+        poolHits = 0;
+        poolMisses = 0;
+        staleSnapshots = 0;
+    }
+
+    /**
+     * Get number of frames drawn by transformer views.
+     */
+    public int getFrames() {
+        return frames;
+    }
+
+    /**
+     * Get total duration of {@link BitmapTransformer#onDraw} calls in nanoseconds.
+     */
+    public long getDrawNanos() {
+        return drawNanos;
+    }
+
+    /**
+     * Get duration of the longest {@link BitmapTransformer#onDraw} call in nanoseconds.
+     */
+    public long getMaxDrawNanos() {
+        return maxDrawNanos;
+    }
+
+    /**
+     * Get total number of drawn pieces. Transformers that don't provide {@link BitmapTransformer.CullingStatistics} aren't counted.
+     */
+    public int getDrawnPieces() {
+        return drawnPieces;
+    }
+
+    /**
+     * Get total number of pieces culled because they were outside of clip bounds.
+     */
+    public int getCulledPieces() {
+        return culledPieces;
+    }
+
+    /**
+     * Get number of generated snapshots, including snapshots updated in place.
+     */
+    public int getSnapshots() {
+        return snapshots;
+    }
+
+    /**
+     * Get number of snapshots updated in place by redrawing only invalidated region.
+     */
+    public int getIncrementalSnapshots() {
+        return incrementalSnapshots;
+    }
+
+    /**
+     * Get total duration of snapshot generation in nanoseconds. For snapshots rendered on background thread
+     * it's a time until snapshot was delivered to main thread.
+     */
+    public long getSnapshotNanos() {
+        return snapshotNanos;
+    }
+
+    /**
+     * Get duration of the longest snapshot generation in nanoseconds.
+     */
+    public long getMaxSnapshotNanos() {
+        return maxSnapshotNanos;
+    }
+
+    /**
+     * Get total size of generated snapshots in bytes.
+     */
+    public long getSnapshotBytes() {
+        return snapshotBytes;
+    }
+
+    /**
+     * Get number of snapshots recorded into pictures instead of bitmaps.
+     */
+    public int getPictureSnapshots() {
+        return pictureSnapshots;
+    }
+
+    /**
+     * Get number of bytes that bitmaps of snapshots recorded into pictures would take.
+     */
+    public long getSavedBytes() {
+        return savedBytes;
+    }
+
+    /**
+     * Get number of pages that reused snapshot of another page with identical content.
+     */
+    public int getSharedSnapshots() {
+        return sharedSnapshots;
+    }
+
+    /**
+     * Get number of snapshots found in cache.
+     */
+    public int getCacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * Get number of snapshots that weren't found in cache.
+     */
+    public int getCacheMisses() {
+        return cacheMisses;
+    }
+
+    /**
+     * Get number of bitmaps reused from pool.
+     */
+    public int getPoolHits() {
+        return poolHits;
+    }
+
+    /**
+     * Get number of allocated bitmaps that weren't found in pool.
+     */
+    public int getPoolMisses() {
+        return poolMisses;
+    }
+
+    /**
+     * Get number of snapshots invalidated at the start of swipe because page's content was changed
+     * or page was reported as complex view.
+     */
+    public int getStaleSnapshots() {
+        return staleSnapshots;
+    }
+}
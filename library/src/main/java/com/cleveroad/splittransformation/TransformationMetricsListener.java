@@ -0,0 +1,18 @@
+package com.cleveroad.splittransformation;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Listener that receives metrics of transformation pipeline in batches.
+ */
+public interface TransformationMetricsListener {
+
+    /**
+     * Called on main thread when batch of metrics is collected: after every {@link TransformationMetrics#BATCH_FRAMES}
+     * drawn frames and when view pager becomes idle. Same instance of metrics is reused for every batch
+     * and reset after this method returns, so don't keep reference to it.
+     *
+     * @param metrics metrics collected since previous batch
+     */
+    void onMetrics(@NonNull TransformationMetrics metrics);
+}
@@ -4,6 +4,7 @@ import android.annotation.TargetApi;
 import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Picture;
 import android.os.Build;
 import android.support.annotation.NonNull;
 import android.util.AttributeSet;
@@ -15,7 +16,10 @@ import android.view.View;
 public class TransformerView extends View {
 
     private Bitmap bitmap;
+    private Picture picture;
+    private SnapshotTiles tiles;
     private BitmapTransformer bitmapTransformer;
+    private MetricsCollector metricsCollector;
 
     public TransformerView(Context context) {
         this(context, null);
@@ -34,6 +38,10 @@ public class TransformerView extends View {
         super(context, attrs, defStyleAttr, defStyleRes);
     }
 
+    void setMetricsCollector(MetricsCollector metricsCollector) {
+        this.metricsCollector = metricsCollector;
+    }
+
     public void setBitmapTransformer(@NonNull BitmapTransformer bitmapTransformer) {
         this.bitmapTransformer = bitmapTransformer;
     }
@@ -44,8 +52,16 @@ public class TransformerView extends View {
         }
     }
 
+    public void setPieceLayout(@NonNull PieceLayout pieceLayout) {
+        if (bitmapTransformer instanceof BitmapTransformer.SharedLayout) {
+            ((BitmapTransformer.SharedLayout) bitmapTransformer).setPieceLayout(pieceLayout);
+        }
+    }
+
     public void setBitmap(Bitmap bitmap, int width, int height) {
         this.bitmap = bitmap;
+        this.picture = null;
+        this.tiles = null;
         if (bitmapTransformer != null) {
             bitmapTransformer.setBitmap(bitmap, width, height);
         }
@@ -54,9 +70,20 @@ public class TransformerView extends View {
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
-        if (bitmapTransformer != null) {
+        if (bitmapTransformer == null) {
+            return;
+        }
+        if (metricsCollector == null) {
             bitmapTransformer.onDraw(canvas);
+            return;
+        }
+        metricsCollector.beginSection(MetricsCollector.SECTION_DRAW);
+        long startTime = metricsCollector.startTime();
+        bitmapTransformer.onDraw(canvas);
+        if (metricsCollector.isEnabled()) {
+            metricsCollector.onDraw(startTime, getDrawnPiecesCount(), getCulledPiecesCount());
         }
+        metricsCollector.endSection();
     }
 
     public void onTransformPage(float position) {
@@ -66,6 +93,101 @@ public class TransformerView extends View {
         invalidate();
     }
 
+    /**
+     * Get number of pieces drawn in last frame.
+     *
+     * @return number of drawn pieces or -1 if bitmap transformer doesn't provide {@link BitmapTransformer.CullingStatistics}
+     */
+    public int getDrawnPiecesCount() {
+        if (bitmapTransformer instanceof BitmapTransformer.CullingStatistics) {
+            return ((BitmapTransformer.CullingStatistics) bitmapTransformer).getDrawnPiecesCount();
+        }
+        return -1;
+    }
+
+    /**
+     * Get number of pieces culled in last frame.
+     *
+     * @return number of culled pieces or -1 if bitmap transformer doesn't provide {@link BitmapTransformer.CullingStatistics}
+     */
+    public int getCulledPiecesCount() {
+        if (bitmapTransformer instanceof BitmapTransformer.CullingStatistics) {
+            return ((BitmapTransformer.CullingStatistics) bitmapTransformer).getCulledPiecesCount();
+        }
+        return -1;
+    }
+
+    public Bitmap getBitmap() {
+        return bitmap;
+    }
+
+    /**
+     * Set recorded picture of page. Picture is passed to transformer only if it implements {@link BitmapTransformer.PictureSource}.
+     *
+     * @param picture picture or null
+     * @param width   original width
+     * @param height  original height
+     * @return true if transformer accepted picture, false otherwise
+     */
+    public boolean setPicture(Picture picture, int width, int height) {
+        if (!(bitmapTransformer instanceof BitmapTransformer.PictureSource)) {
+            return false;
+        }
+        this.bitmap = null;
+        this.picture = picture;
+        this.tiles = null;
+        ((BitmapTransformer.PictureSource) bitmapTransformer).setPicture(picture, width, height);
+        return true;
+    }
+
+    /**
+     * Set tiles of page's snapshot. Tiles are passed to transformer only if it implements {@link BitmapTransformer.TiledSource}.
+     *
+     * @param tiles  tiles or null
+     * @param width  original width
+     * @param height original height
+     * @return true if transformer accepted tiles, false otherwise
+     */
+    public boolean setTiles(SnapshotTiles tiles, int width, int height) {
+        if (!(bitmapTransformer instanceof BitmapTransformer.TiledSource)) {
+            return false;
+        }
+        this.bitmap = null;
+        this.picture = null;
+        this.tiles = tiles;
+        ((BitmapTransformer.TiledSource) bitmapTransformer).setTiles(tiles, width, height);
+        return true;
+    }
+
+    /**
+     * Check if transformer can draw tiled snapshots.
+     */
+    public boolean supportsTiles() {
+        return bitmapTransformer instanceof BitmapTransformer.TiledSource;
+    }
+
+    public SnapshotTiles getTiles() {
+        return tiles;
+    }
+
+    /**
+     * Check if transformer can draw recorded pictures.
+     */
+    public boolean supportsPicture() {
+        return bitmapTransformer instanceof BitmapTransformer.PictureSource;
+    }
+
+    public Picture getPicture() {
+        return picture;
+    }
+
+    /**
+     * Check if view has bitmap, picture or tiles to transform.
+     */
+    public boolean hasSnapshot() {
+        return bitmap != null || picture != null || tiles != null;
+    }
+
     public boolean hasBitmap() {
         return bitmap != null;
     }
@@ -0,0 +1,59 @@
+package com.cleveroad.splittransformation;
+
+import android.graphics.Bitmap;
+import android.support.annotation.Nullable;
+
+/**
+ * Configuration of wrapper chosen by {@link TuningTable}.
+ */
+public final class Tuning {
+
+    private final int rows, columns;
+    private final float bitmapScale;
+    private final Bitmap.Config snapshotConfig;
+    private final int snapshotCacheSize;
+    private final int bitmapPoolSize;
+
+    /**
+     * @param rows              number of rows
+     * @param columns           number of columns
+     * @param bitmapScale       scale of snapshots
+     * @param snapshotConfig    pixel format of snapshots or null to choose it automatically
+     * @param snapshotCacheSize maximum size of snapshots cache in bytes
+     * @param bitmapPoolSize    maximum size of bitmap pool in bytes
+     */
+    public Tuning(int rows, int columns, float bitmapScale, @Nullable Bitmap.Config snapshotConfig,
+                  int snapshotCacheSize, int bitmapPoolSize) {
+        this.rows = rows;
+        this.columns = columns;
+        this.bitmapScale = bitmapScale;
+        this.snapshotConfig = snapshotConfig;
+        this.snapshotCacheSize = snapshotCacheSize;
+        this.bitmapPoolSize = bitmapPoolSize;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public float getBitmapScale() {
+        return bitmapScale;
+    }
+
+    @Nullable
+    public Bitmap.Config getSnapshotConfig() {
+        return snapshotConfig;
+    }
+
+    public int getSnapshotCacheSize() {
+        return snapshotCacheSize;
+    }
+
+    public int getBitmapPoolSize() {
+        return bitmapPoolSize;
+    }
+}
@@ -0,0 +1,20 @@
+package com.cleveroad.splittransformation;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Decision table that chooses configuration of wrapper for device.
+ *
+ * @see TransformationAdapterWrapper.Builder#autoTune(TuningTable)
+ */
+public interface TuningTable {
+
+    /**
+     * Choose configuration for device.
+     *
+     * @param profile profile of device
+     * @return configuration of wrapper
+     */
+    @NonNull
+    Tuning tune(@NonNull DeviceProfile profile);
+}
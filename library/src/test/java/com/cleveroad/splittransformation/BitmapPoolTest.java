@@ -0,0 +1,86 @@
+package com.cleveroad.splittransformation;
+
+import android.graphics.Bitmap;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for reuse and accounting of bitmaps in {@link BitmapPool}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class BitmapPoolTest {
+
+    private static final int POOL_SIZE = 1024 * 1024;
+
+    @Test
+    public void release_makesBitmapReusableForSameSizeAndConfig() throws Exception {
+        BitmapPool pool = new BitmapPool(POOL_SIZE);
+        Bitmap bitmap = pool.acquire(10, 20, Bitmap.Config.ARGB_8888);
+        pool.release(bitmap);
+        assertEquals(10 * 20 * 4, pool.getBytesHeld());
+        assertSame(bitmap, pool.acquire(10, 20, Bitmap.Config.ARGB_8888));
+        assertEquals(0, pool.getBytesHeld());
+        assertEquals(1, pool.getHitCount());
+        assertEquals(1, pool.getMissCount());
+        assertEquals(10 * 20 * 4, pool.getBytesAllocated());
+    }
+
+    @Test
+    public void acquire_missesForDifferentSizeOrConfig() throws Exception {
+        BitmapPool pool = new BitmapPool(POOL_SIZE);
+        Bitmap bitmap = pool.acquire(10, 20, Bitmap.Config.ARGB_8888);
+        pool.release(bitmap);
+        Bitmap otherConfig = pool.acquire(10, 20, Bitmap.Config.RGB_565);
+        Bitmap otherSize = pool.acquire(20, 10, Bitmap.Config.ARGB_8888);
+        assertNotSame(bitmap, otherConfig);
+        assertNotSame(bitmap, otherSize);
+        assertEquals(Bitmap.Config.RGB_565, otherConfig.getConfig());
+        assertEquals(0, pool.getHitCount());
+        assertEquals(3, pool.getMissCount());
+        assertEquals(10 * 20 * 4 + 10 * 20 * 2 + 20 * 10 * 4, pool.getBytesAllocated());
+        assertEquals(10 * 20 * 4, pool.getBytesHeld());
+    }
+
+    @Test
+    public void release_recyclesBitmapsThatDoNotFit() throws Exception {
+        BitmapPool pool = new BitmapPool(10 * 20 * 4);
+        Bitmap first = pool.acquire(10, 20, Bitmap.Config.ARGB_8888);
+        Bitmap second = pool.acquire(10, 20, Bitmap.Config.ARGB_8888);
+        Bitmap large = pool.acquire(20, 20, Bitmap.Config.ARGB_8888);
+        pool.release(first);
+        pool.release(second);
+        pool.release(large);
+        assertTrue(first.isRecycled());
+        assertFalse(second.isRecycled());
+        assertTrue(large.isRecycled());
+        assertEquals(10 * 20 * 4, pool.getBytesHeld());
+        pool.clear();
+        assertTrue(second.isRecycled());
+        assertEquals(0, pool.getBytesHeld());
+    }
+
+    @Test
+    public void copy_returnsSourceToPool() throws Exception {
+        BitmapPool pool = new BitmapPool(POOL_SIZE);
+        Bitmap source = pool.acquire(10, 20, Bitmap.Config.ARGB_8888);
+        Bitmap copy = pool.copy(source, Bitmap.Config.RGB_565);
+        assertNotSame(source, copy);
+        assertEquals(Bitmap.Config.RGB_565, copy.getConfig());
+        assertFalse(copy.isMutable());
+        assertEquals(10 * 20 * 4, pool.getBytesHeld());
+        // copy is allocated outside of buckets and never returns to them
+        assertEquals(10 * 20 * 4 + 10 * 20 * 2, pool.getBytesAllocated());
+        assertSame(source, pool.acquire(10, 20, Bitmap.Config.ARGB_8888));
+        assertEquals(0, pool.getBytesHeld());
+    }
+}
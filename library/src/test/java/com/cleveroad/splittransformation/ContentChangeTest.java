@@ -0,0 +1,98 @@
+package com.cleveroad.splittransformation;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests that snapshots are regenerated only for pages whose content was changed.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class ContentChangeTest {
+
+    private static final int FRAMES = 10;
+
+    private FrameLayout container;
+    private TransformationAdapterWrapper wrapper;
+    private View current, next;
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = RuntimeEnvironment.application;
+        container = new FrameLayout(context);
+        wrapper = TransformationAdapterWrapper.wrap(context, new TextAdapter())
+                .prefetchSnapshots(false)
+                .build();
+        current = (View) wrapper.instantiateItem(container, 0);
+        next = (View) wrapper.instantiateItem(container, 1);
+        wrapper.finishUpdate(container);
+        container.measure(
+                View.MeasureSpec.makeMeasureSpec(SwipeBenchmark.WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(SwipeBenchmark.HEIGHT, View.MeasureSpec.EXACTLY)
+        );
+        container.layout(0, 0, SwipeBenchmark.WIDTH, SwipeBenchmark.HEIGHT);
+        // pages were resized by layout, so first swipe captures them at final size
+        swipe();
+    }
+
+    @Test
+    public void unchangedPages_reuseSnapshots() throws Exception {
+        Bitmap currentBitmap = getBitmap(current);
+        Bitmap nextBitmap = getBitmap(next);
+        assertNotNull(currentBitmap);
+        swipe();
+        assertSame(currentBitmap, getBitmap(current));
+        assertSame(nextBitmap, getBitmap(next));
+    }
+
+    @Test
+    public void changedPage_isSnapshottedAgain() throws Exception {
+        Bitmap currentBitmap = getBitmap(current);
+        Bitmap nextBitmap = getBitmap(next);
+        getInnerView(current, 0).setText("Changed");
+        swipe();
+        assertNotSame(currentBitmap, getBitmap(current));
+        assertSame(nextBitmap, getBitmap(next));
+    }
+
+    /**
+     * Swipe to the next page and back.
+     */
+    private void swipe() {
+        for (int i = 0; i <= FRAMES; i++) {
+            frame(i / (float) FRAMES);
+        }
+        for (int i = FRAMES; i >= 0; i--) {
+            frame(i / (float) FRAMES);
+        }
+    }
+
+    private void frame(float offset) {
+        wrapper.transformPage(current, -offset);
+        wrapper.transformPage(next, 1 - offset);
+    }
+
+    private static Bitmap getBitmap(View page) {
+        return ((TransformerView) page.findViewById(R.id.split_view)).getBitmap();
+    }
+
+    private static TextView getInnerView(View page, int position) {
+        ViewGroup itemContainer = (ViewGroup) page.findViewById(TransformationAdapterWrapper.ITEM_CONTAINER_START_ID + position);
+        return (TextView) itemContainer.getChildAt(0);
+    }
+}
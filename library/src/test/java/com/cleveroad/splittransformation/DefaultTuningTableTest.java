@@ -0,0 +1,73 @@
+package com.cleveroad.splittransformation;
+
+import android.graphics.Bitmap;
+import android.support.annotation.NonNull;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for decisions of default tuning table.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DefaultTuningTableTest {
+
+    private final DefaultTuningTable table = new DefaultTuningTable();
+
+    @Test
+    public void lowRamDevice_getsCheapConfiguration() throws Exception {
+        Tuning tuning = table.tune(new DeviceProfile(true, 192, 240, 480, 800));
+        assertEquals(5, tuning.getRows());
+        assertEquals(5, tuning.getColumns());
+        assertEquals(0.5f, tuning.getBitmapScale(), 0);
+        assertNull(tuning.getSnapshotConfig());
+        assertEquals(192 * 1024 * 1024 / 16, tuning.getSnapshotCacheSize());
+    }
+
+    @Test
+    public void midRangeDevice_limitsSnapshotDensity() throws Exception {
+        Tuning tuning = table.tune(new DeviceProfile(false, 128, 480, 1080, 1776));
+        assertEquals(6, tuning.getRows());
+        assertEquals(320 / 480f, tuning.getBitmapScale(), 0.0001f);
+        assertNull(tuning.getSnapshotConfig());
+    }
+
+    @Test
+    public void largeScreen_movesDeviceClassDown() throws Exception {
+        Tuning tuning = table.tune(new DeviceProfile(false, 128, 640, 2560, 1600));
+        assertEquals(5, tuning.getRows());
+        tuning = table.tune(new DeviceProfile(false, 192, 640, 2560, 1600));
+        assertEquals(6, tuning.getRows());
+    }
+
+    @Test
+    public void highEndDevice_keepsDefaults() throws Exception {
+        Tuning tuning = table.tune(new DeviceProfile(false, 256, 480, 1080, 1920));
+        assertEquals(8, tuning.getRows());
+        assertEquals(8, tuning.getColumns());
+        assertEquals(1f, tuning.getBitmapScale(), 0);
+        assertEquals(Bitmap.Config.ARGB_8888, tuning.getSnapshotConfig());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void overriddenTable_isUsedByBuilder() throws Exception {
+        // single row isn't allowed, so build fails only if builder used configuration of custom table
+        TransformationAdapterWrapper
+                .wrap(RuntimeEnvironment.application, new TextAdapter())
+                .autoTune(new DefaultTuningTable() {
+                    @NonNull
+                    @Override
+                    public Tuning tune(@NonNull DeviceProfile profile) {
+                        return new Tuning(1, 4, 0.25f, Bitmap.Config.RGB_565, 0, 0);
+                    }
+                })
+                .build();
+    }
+}
@@ -0,0 +1,122 @@
+package com.cleveroad.splittransformation;
+
+import android.content.Context;
+import android.support.v4.view.PagerAdapter;
+import android.util.SparseArray;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for snapshots of inner views that are created after page, like views of fragments.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class FirstFrameCaptureTest {
+
+    private Context context;
+    private FrameLayout container;
+
+    @Before
+    public void setUp() throws Exception {
+        context = RuntimeEnvironment.application;
+        container = new FrameLayout(context);
+    }
+
+    @Test
+    public void lateView_isCapturedAfterFirstFrame() throws Exception {
+        TransformationAdapterWrapper wrapper = TransformationAdapterWrapper.wrap(context, new LateViewAdapter())
+                .prefetchSnapshots(false)
+                .build();
+        View page = (View) wrapper.instantiateItem(container, 0);
+        wrapper.finishUpdate(container);
+        TransformerView transformerView = (TransformerView) page.findViewById(R.id.split_view);
+        View itemContainer = page.findViewById(TransformationAdapterWrapper.ITEM_CONTAINER_START_ID);
+        assertEquals(1, ((ViewGroup) itemContainer).getChildCount());
+
+        // view isn't laid out yet, so it's not captured
+        itemContainer.getViewTreeObserver().dispatchOnPreDraw();
+        Robolectric.flushForegroundThreadScheduler();
+        assertFalse(transformerView.hasSnapshot());
+
+        container.measure(
+                View.MeasureSpec.makeMeasureSpec(SwipeBenchmark.WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(SwipeBenchmark.HEIGHT, View.MeasureSpec.EXACTLY)
+        );
+        container.layout(0, 0, SwipeBenchmark.WIDTH, SwipeBenchmark.HEIGHT);
+        itemContainer.getViewTreeObserver().dispatchOnPreDraw();
+        Robolectric.flushForegroundThreadScheduler();
+        assertTrue(transformerView.hasSnapshot());
+        assertEquals(SwipeBenchmark.WIDTH, transformerView.getBitmap().getWidth());
+        assertEquals(SwipeBenchmark.HEIGHT, transformerView.getBitmap().getHeight());
+    }
+
+    @Test
+    public void destroyedPage_isNotCaptured() throws Exception {
+        TransformationAdapterWrapper wrapper = TransformationAdapterWrapper.wrap(context, new LateViewAdapter())
+                .prefetchSnapshots(false)
+                .pagePoolSize(0)
+                .build();
+        View page = (View) wrapper.instantiateItem(container, 0);
+        wrapper.finishUpdate(container);
+        TransformerView transformerView = (TransformerView) page.findViewById(R.id.split_view);
+        View itemContainer = page.findViewById(TransformationAdapterWrapper.ITEM_CONTAINER_START_ID);
+        wrapper.destroyItem(container, 0, page);
+        itemContainer.getViewTreeObserver().dispatchOnPreDraw();
+        Robolectric.flushForegroundThreadScheduler();
+        assertFalse(transformerView.hasSnapshot());
+    }
+
+    /**
+     * Adapter that adds views in {@link #finishUpdate(ViewGroup)}, like fragment adapters do.
+     */
+    private static class LateViewAdapter extends PagerAdapter {
+
+        private final SparseArray<ViewGroup> pending = new SparseArray<>();
+
+        @Override
+        public int getCount() {
+            return 10;
+        }
+
+        @Override
+        public Object instantiateItem(ViewGroup container, int position) {
+            pending.put(position, container);
+            return position;
+        }
+
+        @Override
+        public void finishUpdate(ViewGroup container) {
+            for (int i = 0; i < pending.size(); i++) {
+                TextView view = new TextView(container.getContext());
+                view.setText("Page " + pending.keyAt(i));
+                pending.valueAt(i).addView(view, new FrameLayout.LayoutParams(
+                        ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+            }
+            pending.clear();
+        }
+
+        @Override
+        public void destroyItem(ViewGroup container, int position, Object object) {
+            container.removeAllViews();
+        }
+
+        @Override
+        public boolean isViewFromObject(View view, Object object) {
+            return false;
+        }
+    }
+}
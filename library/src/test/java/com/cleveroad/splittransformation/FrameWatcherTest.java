@@ -0,0 +1,65 @@
+package com.cleveroad.splittransformation;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for quality levels driven by frames of separate swipes.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class FrameWatcherTest {
+
+    private static final int SWIPE_FRAMES = 25;
+    private static final long FAST_FRAME = QualityGovernor.FRAME_BUDGET_NANOS;
+    private static final long SLOW_FRAME = QualityGovernor.FRAME_BUDGET_NANOS * 3;
+
+    private long frameTime = 1;
+
+    @Test
+    public void shortSwipes_stepQualityBackUp() throws Exception {
+        QualityGovernor governor = new QualityGovernor(8, 4, 8, 4, 1f, 0.5f);
+        FrameWatcher watcher = new FrameWatcher(governor);
+        swipe(watcher, 4, SLOW_FRAME);
+        assertEquals(1, governor.getLevel());
+        // 4 swipes give 96 fast frames, not enough to step up yet
+        for (int i = 0; i < 4; i++) {
+            swipe(watcher, SWIPE_FRAMES, FAST_FRAME);
+        }
+        assertEquals(1, governor.getLevel());
+        for (int i = 0; i < 2; i++) {
+            swipe(watcher, SWIPE_FRAMES, FAST_FRAME);
+        }
+        assertEquals(0, governor.getLevel());
+    }
+
+    @Test
+    public void slowFrames_areNotCarriedToNextSwipe() throws Exception {
+        QualityGovernor governor = new QualityGovernor(8, 4, 8, 4, 1f, 0.5f);
+        FrameWatcher watcher = new FrameWatcher(governor);
+        // two slow frames per swipe never make three slow frames in a row
+        for (int i = 0; i < 5; i++) {
+            swipe(watcher, 3, SLOW_FRAME);
+        }
+        assertEquals(0, governor.getLevel());
+    }
+
+    /**
+     * Start watcher, deliver frames with given interval and stop watcher, like a swipe does.
+     * The first frame of swipe only starts measuring.
+     */
+    private void swipe(FrameWatcher watcher, int frames, long frameNanos) {
+        watcher.start();
+        for (int i = 0; i < frames; i++) {
+            watcher.doFrame(frameTime);
+            frameTime += frameNanos;
+        }
+        watcher.stop();
+        // idle time between swipes
+        frameTime += 1000000000L;
+    }
+}
@@ -0,0 +1,60 @@
+package com.cleveroad.splittransformation;
+
+import android.graphics.Bitmap;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for draw calls of {@link MeshBitmapTransformer}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class MeshBitmapTransformerTest {
+
+    private static final int ROWS = 4;
+    private static final int COLUMNS = 4;
+
+    private MeshBitmapTransformer transformer;
+
+    @Before
+    public void setUp() throws Exception {
+        transformer = new MeshBitmapTransformer();
+        transformer.setup(ROWS, COLUMNS, 0, 100, 100, 10);
+        transformer.setBitmap(Bitmap.createBitmap(SwipeBenchmark.WIDTH, SwipeBenchmark.HEIGHT, Bitmap.Config.ARGB_8888),
+                SwipeBenchmark.WIDTH, SwipeBenchmark.HEIGHT);
+        transformer.onTransformPage(0);
+    }
+
+    @Test
+    public void softwareCanvas_drawsAllPiecesWithSingleCall() throws Exception {
+        RecordingCanvas canvas = new RecordingCanvas(SwipeBenchmark.WIDTH, SwipeBenchmark.HEIGHT);
+        transformer.onDraw(canvas);
+        assertEquals(ROWS * COLUMNS, transformer.getDrawnPiecesCount());
+        assertEquals(1, canvas.getDrawOps());
+        assertEquals(0, canvas.getSaveCalls());
+        assertTrue(transformer.isSingleDrawCall());
+    }
+
+    @Test
+    public void hardwareCanvas_drawsPiecesOneByOneBeforeApi29() throws Exception {
+        RecordingCanvas canvas = new RecordingCanvas(SwipeBenchmark.WIDTH, SwipeBenchmark.HEIGHT) {
+            @Override
+            public boolean isHardwareAccelerated() {
+                return true;
+            }
+        };
+        assertFalse(MeshBitmapTransformer.supportsSingleDrawCall(canvas));
+        transformer.onDraw(canvas);
+        assertEquals(ROWS * COLUMNS, transformer.getDrawnPiecesCount());
+        assertEquals(ROWS * COLUMNS, canvas.getDrawOps());
+        assertFalse(transformer.isSingleDrawCall());
+    }
+}
@@ -0,0 +1,77 @@
+package com.cleveroad.splittransformation;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for batched metrics delivered to {@link TransformationMetricsListener}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class MetricsListenerTest {
+
+    @Test
+    public void swipes_reportBatchedMetrics() throws Exception {
+        Context context = RuntimeEnvironment.application;
+        CountingListener listener = new CountingListener();
+        new SwipeBenchmark(context, TransformationAdapterWrapper.wrap(context, new TextAdapter())
+                .rows(4)
+                .columns(4)
+                .prefetchSnapshots(false)
+                .metricsListener(listener))
+                .swipe(30)
+                .swipe(30);
+        assertTrue(listener.batches > 0);
+        assertEquals(listener.batches * TransformationMetrics.BATCH_FRAMES, listener.frames);
+        assertTrue(listener.snapshots >= 2);
+        assertTrue(listener.snapshotBytes > 0);
+        assertTrue(listener.drawnPieces > 0);
+        assertTrue(listener.drawnPieces + listener.culledPieces <= listener.frames * 16);
+    }
+
+    @Test
+    public void disabledCache_isNotLookedUp() throws Exception {
+        Context context = RuntimeEnvironment.application;
+        CountingListener listener = new CountingListener();
+        new SwipeBenchmark(context, TransformationAdapterWrapper.wrap(context, new TextAdapter())
+                .prefetchSnapshots(false)
+                .snapshotCacheSize(0)
+                .metricsListener(listener))
+                .swipe(30)
+                .swipe(30);
+        assertTrue(listener.batches > 0);
+        assertTrue(listener.snapshots >= 2);
+        assertEquals(0, listener.cacheHits + listener.cacheMisses);
+    }
+
+    private static class CountingListener implements TransformationMetricsListener {
+
+        private int batches;
+        private int frames;
+        private int snapshots;
+        private long snapshotBytes;
+        private int drawnPieces, culledPieces;
+        private int cacheHits, cacheMisses;
+
+        @Override
+        public void onMetrics(@NonNull TransformationMetrics metrics) {
+            batches++;
+            frames += metrics.getFrames();
+            snapshots += metrics.getSnapshots();
+            snapshotBytes += metrics.getSnapshotBytes();
+            drawnPieces += metrics.getDrawnPieces();
+            culledPieces += metrics.getCulledPieces();
+            cacheHits += metrics.getCacheHits();
+            cacheMisses += metrics.getCacheMisses();
+        }
+    }
+}
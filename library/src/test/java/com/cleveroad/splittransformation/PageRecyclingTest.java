@@ -0,0 +1,142 @@
+package com.cleveroad.splittransformation;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.support.annotation.NonNull;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests for recycling of destroyed pages.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class PageRecyclingTest {
+
+    private Context context;
+    private FrameLayout container;
+
+    @Before
+    public void setUp() throws Exception {
+        context = RuntimeEnvironment.application;
+        container = new FrameLayout(context);
+    }
+
+    @Test
+    public void destroyedPage_isReusedAfterUpdate() throws Exception {
+        TransformationAdapterWrapper wrapper = TransformationAdapterWrapper.wrap(context, new TextAdapter(10))
+                .prefetchSnapshots(false)
+                .build();
+        View first = (View) wrapper.instantiateItem(container, 0);
+        wrapper.destroyItem(container, 0, first);
+        wrapper.finishUpdate(container);
+        View second = (View) wrapper.instantiateItem(container, 5);
+        assertSame(first, second);
+        assertEquals(View.VISIBLE, second.findViewById(TransformationAdapterWrapper.ITEM_CONTAINER_START_ID + 5).getVisibility());
+        assertEquals(View.INVISIBLE, second.findViewById(R.id.split_view).getVisibility());
+        assertNull(((TransformerView) second.findViewById(R.id.split_view)).getBitmap());
+    }
+
+    @Test
+    public void destroyedPage_isNotReusedBeforeUpdate() throws Exception {
+        TransformationAdapterWrapper wrapper = TransformationAdapterWrapper.wrap(context, new TextAdapter(10))
+                .prefetchSnapshots(false)
+                .build();
+        View first = (View) wrapper.instantiateItem(container, 0);
+        wrapper.destroyItem(container, 0, first);
+        View second = (View) wrapper.instantiateItem(container, 1);
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void disabledPool_doesNotReusePages() throws Exception {
+        TransformationAdapterWrapper wrapper = TransformationAdapterWrapper.wrap(context, new TextAdapter(10))
+                .prefetchSnapshots(false)
+                .pagePoolSize(0)
+                .build();
+        View first = (View) wrapper.instantiateItem(container, 0);
+        wrapper.destroyItem(container, 0, first);
+        wrapper.finishUpdate(container);
+        View second = (View) wrapper.instantiateItem(container, 1);
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void reusedPage_getsTransformerForNewPosition() throws Exception {
+        PositionTransformerFactory factory = new PositionTransformerFactory();
+        TransformationAdapterWrapper wrapper = TransformationAdapterWrapper.wrap(context, new TextAdapter(10))
+                .prefetchSnapshots(false)
+                .rows(4)
+                .bitmapTransformerFactory(factory)
+                .build();
+        View first = (View) wrapper.instantiateItem(container, 0);
+        wrapper.destroyItem(container, 0, first);
+        wrapper.finishUpdate(container);
+        View second = (View) wrapper.instantiateItem(container, 5);
+        assertSame(first, second);
+        assertEquals(2, factory.transformers.size());
+        PositionTransformer transformer = factory.transformers.get(1);
+        assertEquals(5, transformer.position);
+        assertEquals(4, transformer.rows);
+        assertNotNull(transformer.bitmap);
+        assertNull(factory.transformers.get(0).bitmap);
+    }
+
+    private static class PositionTransformerFactory implements BitmapTransformer.Factory {
+
+        private final List<PositionTransformer> transformers = new ArrayList<>();
+
+        @Override
+        public BitmapTransformer newTransformer(int position) {
+            PositionTransformer transformer = new PositionTransformer(position);
+            transformers.add(transformer);
+            return transformer;
+        }
+    }
+
+    private static class PositionTransformer implements BitmapTransformer {
+
+        private final int position;
+        private int rows;
+        private Bitmap bitmap;
+
+        PositionTransformer(int position) {
+            this.position = position;
+        }
+
+        @Override
+        public void setup(int rows, int cols, int marginTop, float translationX, float translationY, float piecesSpacing) {
+            this.rows = rows;
+        }
+
+        @Override
+        public void setBitmap(Bitmap bitmap, int originalWidth, int originalHeight) {
+            this.bitmap = bitmap;
+        }
+
+        @Override
+        public void onTransformPage(float position) {
+        }
+
+        @Override
+        public void onDraw(@NonNull Canvas canvas) {
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.cleveroad.splittransformation;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for per-page state updated on every frame.
+ */
+public class PageStateTest {
+
+    private static final int FRAMES = 500;
+
+    @Test
+    public void leavingFrontPosition_isReportedOnce() throws Exception {
+        PageState state = new PageState();
+        assertFalse(state.updatePosition(0));
+        assertTrue(state.updatePosition(-0.1f));
+        assertFalse(state.updatePosition(-0.2f));
+        assertFalse(state.updatePosition(0));
+        assertTrue(state.updatePosition(0.1f));
+    }
+
+    @Test
+    public void reset_invalidatesSnapshot() throws Exception {
+        PageState state = new PageState();
+        state.setSnapshotValid(true);
+        state.updatePosition(0.5f);
+        state.reset();
+        assertFalse(state.isSnapshotValid());
+        assertEquals(0, state.getPosition(), 0);
+    }
+
+    @Test
+    public void simulatedSwipe_doesNotAllocate() throws Exception {
+        PageState left = new PageState();
+        PageState current = new PageState();
+        PageState right = new PageState();
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        // warm up code paths and allocation counter
+        swipe(left, current, right);
+        long before = bean.getThreadAllocatedBytes(threadId);
+        int leftCount = swipe(left, current, right);
+        long allocated = bean.getThreadAllocatedBytes(threadId) - before;
+        assertEquals(0, allocated);
+        // current page leaves front on swipe forward, right page leaves front on swipe back
+        assertEquals(2, leftCount);
+    }
+
+    /**
+     * Simulate swipe to the next page and back, as ViewPager calls transformPage for every visible page on every frame.
+     *
+     * @return number of times pages left front position
+     */
+    private static int swipe(PageState left, PageState current, PageState right) {
+        int leftCount = 0;
+        for (int i = 0; i <= FRAMES; i++) {
+            float offset = i / (float) FRAMES;
+            leftCount += frame(left, current, right, offset);
+        }
+        for (int i = FRAMES; i >= 0; i--) {
+            float offset = i / (float) FRAMES;
+            leftCount += frame(left, current, right, offset);
+        }
+        return leftCount;
+    }
+
+    private static int frame(PageState left, PageState current, PageState right, float offset) {
+        int leftCount = 0;
+        if (left.updatePosition(-1 - offset)) leftCount++;
+        if (current.updatePosition(-offset)) leftCount++;
+        if (right.updatePosition(1 - offset)) leftCount++;
+        if (!current.isSnapshotValid()) {
+            current.setSnapshotValid(true);
+        }
+        PieceGeometry.isVisible(10 * offset, 10, 20 + 10 * offset, 20, 90 * offset, 0, 0, 100, 100);
+        return leftCount;
+    }
+}
@@ -0,0 +1,71 @@
+package com.cleveroad.splittransformation;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.view.SurfaceView;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for snapshots recorded into pictures.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class PictureSnapshotsTest {
+
+    @Test
+    public void canRecord_rejectsSurfaceViews() throws Exception {
+        Context context = RuntimeEnvironment.application;
+        FrameLayout page = new FrameLayout(context);
+        page.addView(new TextView(context));
+        assertTrue(PictureSnapshots.canRecord(page));
+        FrameLayout inner = new FrameLayout(context);
+        inner.addView(new SurfaceView(context));
+        page.addView(inner);
+        assertFalse(PictureSnapshots.canRecord(page));
+    }
+
+    @Test
+    public void swipes_recordPictures() throws Exception {
+        Context context = RuntimeEnvironment.application;
+        CountingListener listener = new CountingListener();
+        new SwipeBenchmark(context, TransformationAdapterWrapper.wrap(context, new TextAdapter())
+                .rows(4)
+                .columns(4)
+                .prefetchSnapshots(false)
+                .pictureSnapshots(true)
+                .metricsListener(listener))
+                .swipe(30)
+                .swipe(30);
+        assertTrue(listener.pictureSnapshots >= 2);
+        assertEquals(listener.snapshots, listener.pictureSnapshots);
+        assertTrue(listener.savedBytes > 0);
+        assertTrue(listener.drawnPieces > 0);
+    }
+
+    private static class CountingListener implements TransformationMetricsListener {
+
+        private int snapshots;
+        private int pictureSnapshots;
+        private long savedBytes;
+        private int drawnPieces;
+
+        @Override
+        public void onMetrics(@NonNull TransformationMetrics metrics) {
+            snapshots += metrics.getSnapshots();
+            pictureSnapshots += metrics.getPictureSnapshots();
+            savedBytes += metrics.getSavedBytes();
+            drawnPieces += metrics.getDrawnPieces();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.cleveroad.splittransformation;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+import java.util.ArrayDeque;
+
+/**
+ * Software canvas that fills pixels of target bitmap for solid colors and rectangles under scale, translation and
+ * rectangular clip. Like canvas of apps targeting Android 6.0, it keeps its matrix when target bitmap is replaced.
+ */
+class PixelCanvas extends Canvas {
+
+    private final ArrayDeque<float[]> states = new ArrayDeque<>();
+    private Bitmap bitmap;
+    private float scaleX = 1f, scaleY = 1f;
+    private float translateX, translateY;
+    private final RectF clip = new RectF();
+    private final RectF mapped = new RectF();
+
+    @Override
+    public void setBitmap(Bitmap bitmap) {
+        super.setBitmap(bitmap);
+        this.bitmap = bitmap;
+        if (bitmap != null) {
+            clip.set(0, 0, bitmap.getWidth(), bitmap.getHeight());
+        }
+    }
+
+    @Override
+    public int getWidth() {
+        return bitmap == null ? 0 : bitmap.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+        return bitmap == null ? 0 : bitmap.getHeight();
+    }
+
+    @Override
+    public boolean isHardwareAccelerated() {
+        return false;
+    }
+
+    @Override
+    public int save() {
+        states.push(new float[]{scaleX, scaleY, translateX, translateY, clip.left, clip.top, clip.right, clip.bottom});
+        return states.size();
+    }
+
+    @Override
+    public int save(int saveFlags) {
+        return save();
+    }
+
+    @Override
+    public int saveLayerAlpha(float left, float top, float right, float bottom, int alpha, int saveFlags) {
+        return save();
+    }
+
+    @Override
+    public void restore() {
+        float[] state = states.pop();
+        scaleX = state[0];
+        scaleY = state[1];
+        translateX = state[2];
+        translateY = state[3];
+        clip.set(state[4], state[5], state[6], state[7]);
+    }
+
+    @Override
+    public int getSaveCount() {
+        return states.size() + 1;
+    }
+
+    @Override
+    public void restoreToCount(int saveCount) {
+        while (getSaveCount() > saveCount) {
+            restore();
+        }
+    }
+
+    @Override
+    public void translate(float dx, float dy) {
+        translateX += dx * scaleX;
+        translateY += dy * scaleY;
+    }
+
+    @Override
+    public void scale(float sx, float sy) {
+        scaleX *= sx;
+        scaleY *= sy;
+    }
+
+    @Override
+    public boolean clipRect(float left, float top, float right, float bottom) {
+        map(left, top, right, bottom);
+        if (!clip.intersect(mapped)) {
+            clip.setEmpty();
+        }
+        return !clip.isEmpty();
+    }
+
+    @Override
+    public boolean clipRect(int left, int top, int right, int bottom) {
+        return clipRect((float) left, (float) top, (float) right, (float) bottom);
+    }
+
+    @Override
+    public boolean clipRect(Rect rect) {
+        return clipRect(rect.left, rect.top, rect.right, rect.bottom);
+    }
+
+    @Override
+    public boolean clipRect(RectF rect) {
+        return clipRect(rect.left, rect.top, rect.right, rect.bottom);
+    }
+
+    @Override
+    public boolean quickReject(float left, float top, float right, float bottom, EdgeType type) {
+        return false;
+    }
+
+    @Override
+    public boolean quickReject(RectF rect, EdgeType type) {
+        return false;
+    }
+
+    @Override
+    public void drawColor(int color) {
+        fill(clip, color);
+    }
+
+    @Override
+    public void drawColor(int color, PorterDuff.Mode mode) {
+        fill(clip, color);
+    }
+
+    @Override
+    public void drawRect(float left, float top, float right, float bottom, Paint paint) {
+        map(left, top, right, bottom);
+        if (mapped.intersect(clip)) {
+            fill(mapped, paint.getColor());
+        }
+    }
+
+    @Override
+    public void drawRect(Rect rect, Paint paint) {
+        drawRect(rect.left, rect.top, rect.right, rect.bottom, paint);
+    }
+
+    @Override
+    public void drawRect(RectF rect, Paint paint) {
+        drawRect(rect.left, rect.top, rect.right, rect.bottom, paint);
+    }
+
+    private void map(float left, float top, float right, float bottom) {
+        mapped.set(left * scaleX + translateX, top * scaleY + translateY,
+                right * scaleX + translateX, bottom * scaleY + translateY);
+    }
+
+    private void fill(RectF area, int color) {
+        int right = Math.min(bitmap.getWidth(), Math.round(area.right));
+        int bottom = Math.min(bitmap.getHeight(), Math.round(area.bottom));
+        for (int y = Math.max(0, Math.round(area.top)); y < bottom; y++) {
+            for (int x = Math.max(0, Math.round(area.left)); x < right; x++) {
+                bitmap.setPixel(x, y, color);
+            }
+        }
+    }
+}
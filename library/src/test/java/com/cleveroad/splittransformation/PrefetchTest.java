@@ -0,0 +1,104 @@
+package com.cleveroad.splittransformation;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.support.v4.view.ViewPager;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.util.ReflectionHelpers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests for snapshots of neighbour pages prefetched while view pager is idle.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class PrefetchTest {
+
+    private static final int MAX_IDLE_CALLS = 10;
+
+    private ViewPager pager;
+    private TransformationAdapterWrapper wrapper;
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = RuntimeEnvironment.application;
+        pager = new ViewPager(context);
+        wrapper = TransformationAdapterWrapper.wrap(context, new TextAdapter(3))
+                .build();
+    }
+
+    @Test
+    public void changedNeighbour_isSnapshottedWhileIdle() throws Exception {
+        View current = (View) wrapper.instantiateItem(pager, 0);
+        View next = (View) wrapper.instantiateItem(pager, 1);
+        wrapper.finishUpdate(pager);
+        Bitmap currentBitmap = getBitmap(current);
+        Bitmap nextBitmap = getBitmap(next);
+        assertNotNull(nextBitmap);
+
+        getInnerView(next, 1).setText("Changed");
+        pager.getViewTreeObserver().dispatchOnPreDraw();
+        // snapshot is updated before any swipe
+        idle();
+        assertSame(currentBitmap, getBitmap(current));
+        assertNotSame(nextBitmap, getBitmap(next));
+    }
+
+    @Test
+    public void prefetchPass_isScheduledOnce() throws Exception {
+        wrapper.instantiateItem(pager, 0);
+        wrapper.instantiateItem(pager, 1);
+        int idleHandlers = getIdleHandlers().size();
+        wrapper.finishUpdate(pager);
+        wrapper.finishUpdate(pager);
+        assertEquals(idleHandlers + 1, getIdleHandlers().size());
+        idle();
+        assertEquals(idleHandlers, getIdleHandlers().size());
+    }
+
+    private static Bitmap getBitmap(View page) {
+        return ((TransformerView) page.findViewById(R.id.split_view)).getBitmap();
+    }
+
+    private static TextView getInnerView(View page, int position) {
+        ViewGroup itemContainer = (ViewGroup) page.findViewById(TransformationAdapterWrapper.ITEM_CONTAINER_START_ID + position);
+        return (TextView) itemContainer.getChildAt(0);
+    }
+
+    private static List<MessageQueue.IdleHandler> getIdleHandlers() {
+        return ReflectionHelpers.getField(Looper.myQueue(), "mIdleHandlers");
+    }
+
+    /**
+     * Call idle handlers of main thread like looper does when its queue is empty.
+     * Robolectric's scheduler runs posted messages only, so idle handlers must be called explicitly.
+     */
+    private static void idle() {
+        MessageQueue queue = Looper.myQueue();
+        for (int i = 0; i < MAX_IDLE_CALLS && !getIdleHandlers().isEmpty(); i++) {
+            for (MessageQueue.IdleHandler handler : new ArrayList<>(getIdleHandlers())) {
+                if (!handler.queueIdle()) {
+                    queue.removeIdleHandler(handler);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.cleveroad.splittransformation;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for adaptive quality levels.
+ */
+public class QualityGovernorTest {
+
+    private static final long FAST_FRAME = QualityGovernor.FRAME_BUDGET_NANOS;
+    private static final long SLOW_FRAME = QualityGovernor.FRAME_BUDGET_NANOS * 3;
+
+    @Test
+    public void slowFrames_stepQualityDown() throws Exception {
+        QualityGovernor governor = new QualityGovernor(10, 4, 7, 4, 1f, 0.5f);
+        assertFalse(governor.onFrame(SLOW_FRAME));
+        assertFalse(governor.onFrame(SLOW_FRAME));
+        assertTrue(governor.onFrame(SLOW_FRAME));
+        assertEquals(1, governor.getLevel());
+        assertEquals(8, governor.getRows());
+        assertEquals(6, governor.getColumns());
+        assertTrue(governor.getBitmapScale() < 1f);
+        assertTrue(governor.getRotationScale() < 1f);
+    }
+
+    @Test
+    public void levels_stayWithinBounds() throws Exception {
+        QualityGovernor governor = new QualityGovernor(10, 4, 7, 4, 1f, 0.5f);
+        for (int i = 0; i < 100; i++) {
+            governor.onFrame(SLOW_FRAME);
+        }
+        assertEquals(QualityGovernor.MAX_LEVEL, governor.getLevel());
+        assertEquals(4, governor.getRows());
+        assertEquals(4, governor.getColumns());
+        assertEquals(0.5f, governor.getBitmapScale(), 0.0001f);
+        for (int i = 0; i < 10000; i++) {
+            governor.onFrame(FAST_FRAME);
+        }
+        assertEquals(0, governor.getLevel());
+        assertEquals(10, governor.getRows());
+        assertEquals(7, governor.getColumns());
+        assertEquals(1f, governor.getBitmapScale(), 0);
+        assertEquals(1f, governor.getRotationScale(), 0);
+    }
+
+    @Test
+    public void occasionalSlowFrame_keepsQuality() throws Exception {
+        QualityGovernor governor = new QualityGovernor(8, 4, 8, 4, 1f, 0.5f);
+        for (int i = 0; i < 300; i++) {
+            governor.onFrame(i % 10 == 0 ? SLOW_FRAME : FAST_FRAME);
+        }
+        assertEquals(0, governor.getLevel());
+    }
+}
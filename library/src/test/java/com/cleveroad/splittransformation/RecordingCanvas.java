@@ -0,0 +1,125 @@
+package com.cleveroad.splittransformation;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+/**
+ * Canvas that doesn't draw anything and counts draw operations instead.
+ */
+class RecordingCanvas extends Canvas {
+
+    private final int width, height;
+    private int drawOps;
+    private int saveCalls;
+    private int restoreCalls;
+    private int depth;
+
+    RecordingCanvas(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Reset counters before next frame.
+     */
+    void reset() {
+        drawOps = 0;
+        saveCalls = 0;
+        restoreCalls = 0;
+        depth = 0;
+    }
+
+    int getDrawOps() {
+        return drawOps;
+    }
+
+    int getSaveCalls() {
+        return saveCalls;
+    }
+
+    int getRestoreCalls() {
+        return restoreCalls;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public boolean isHardwareAccelerated() {
+        return false;
+    }
+
+    @Override
+    public boolean getClipBounds(Rect bounds) {
+        bounds.set(0, 0, width, height);
+        return true;
+    }
+
+    @Override
+    public int save() {
+        saveCalls++;
+        return ++depth;
+    }
+
+    @Override
+    public int save(int saveFlags) {
+        return save();
+    }
+
+    @Override
+    public void restore() {
+        restoreCalls++;
+        depth--;
+    }
+
+    @Override
+    public void restoreToCount(int saveCount) {
+        while (depth >= saveCount) {
+            restore();
+        }
+    }
+
+    @Override
+    public void rotate(float degrees) {
+    }
+
+    @Override
+    public void translate(float dx, float dy) {
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Rect src, RectF dst, Paint paint) {
+        drawOps++;
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Rect src, Rect dst, Paint paint) {
+        drawOps++;
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+        drawOps++;
+    }
+
+    @Override
+    public void drawRect(RectF rect, Paint paint) {
+        drawOps++;
+    }
+
+    @Override
+    public void drawVertices(VertexMode mode, int vertexCount, float[] verts, int vertOffset, float[] texs, int texOffset,
+                             int[] colors, int colorOffset, short[] indices, int indexOffset, int indexCount, Paint paint) {
+        drawOps++;
+    }
+}
@@ -0,0 +1,89 @@
+package com.cleveroad.splittransformation;
+
+import android.content.Context;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Fails the build when cost of drawing transformed pages regresses beyond thresholds.
+ * Time thresholds are generous, because they only catch order-of-magnitude regressions on CI machines.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class RenderingRegressionTest {
+
+    private static final int ROWS = 8;
+    private static final int COLUMNS = 8;
+    private static final int FRAMES_PER_SWIPE = 30;
+    private static final int SWIPES = 5;
+    private static final long MAX_AVERAGE_FRAME_NANOS = 20000000L;
+
+    private Context context;
+
+    @Before
+    public void setUp() throws Exception {
+        context = RuntimeEnvironment.application;
+    }
+
+    @Test
+    public void defaultTransformer_staysWithinBudget() throws Exception {
+        SwipeBenchmark benchmark = run(TransformationAdapterWrapper.wrap(context, new TextAdapter()));
+        // at most one draw call per piece for each of two pages
+        assertTrue("Default transformer: " + benchmark, benchmark.getMaxDrawOps() <= 2 * ROWS * COLUMNS);
+        assertTrue("Default transformer: " + benchmark, benchmark.getMaxSaves() <= 2 * ROWS * COLUMNS);
+        assertBudget(benchmark);
+    }
+
+    @Test
+    public void meshTransformer_drawsSinglePassPerPage() throws Exception {
+        SwipeBenchmark benchmark = run(TransformationAdapterWrapper.wrap(context, new TextAdapter())
+                .bitmapTransformerFactory(new MeshBitmapTransformer.Factory()));
+        assertTrue("Mesh transformer: " + benchmark, benchmark.getMaxDrawOps() <= 2);
+        assertTrue("Mesh transformer: " + benchmark, benchmark.getMaxSaves() <= 2);
+        assertBudget(benchmark);
+    }
+
+    @Test
+    public void replayedTrace_costsSameAsRecordedSwipe() throws Exception {
+        SwipeTraceRecorder recorder = new SwipeTraceRecorder(4 * FRAMES_PER_SWIPE * SWIPES);
+        SwipeBenchmark recorded = run(TransformationAdapterWrapper.wrap(context, new TextAdapter())
+                .swipeTraceRecorder(recorder));
+        SwipeBenchmark replayed = new SwipeBenchmark(context, TransformationAdapterWrapper
+                .wrap(context, new TextAdapter())
+                .rows(ROWS)
+                .columns(COLUMNS)
+                .prefetchSnapshots(false))
+                .replay(recorder.toTrace());
+        assertEquals("Replayed trace: " + replayed, recorded.getMaxDrawOps(), replayed.getMaxDrawOps());
+        assertBudget(replayed);
+    }
+
+    private SwipeBenchmark run(TransformationAdapterWrapper.Builder builder) {
+        SwipeBenchmark benchmark = new SwipeBenchmark(context, builder
+                .rows(ROWS)
+                .columns(COLUMNS)
+                .prefetchSnapshots(false));
+        for (int i = 0; i < SWIPES; i++) {
+            benchmark.swipe(FRAMES_PER_SWIPE);
+        }
+        return benchmark;
+    }
+
+    private static void assertBudget(SwipeBenchmark benchmark) {
+        assertEquals(0, benchmark.getUnbalancedFrames());
+        // each page holds at most its cached snapshot and a regenerated one, following swipes reuse pooled bitmaps
+        long snapshotBytes = 4L * SwipeBenchmark.WIDTH * SwipeBenchmark.HEIGHT * 4;
+        assertTrue("Allocated " + benchmark.getBytesAllocated() + " bytes",
+                benchmark.getBytesAllocated() <= snapshotBytes);
+        assertTrue("Average frame took " + benchmark.getAverageNanos() + " ns",
+                benchmark.getAverageNanos() <= MAX_AVERAGE_FRAME_NANOS);
+    }
+}
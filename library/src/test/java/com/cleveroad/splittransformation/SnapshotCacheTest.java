@@ -0,0 +1,87 @@
+package com.cleveroad.splittransformation;
+
+import android.graphics.Bitmap;
+import android.graphics.Picture;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for byte budget and releasing of snapshots in {@link SnapshotCache}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class SnapshotCacheTest {
+
+    private static final int WIDTH = 10;
+    private static final int HEIGHT = 20;
+    private static final int BYTES = WIDTH * HEIGHT * 4;
+
+    private BitmapPool pool;
+
+    @Before
+    public void setUp() throws Exception {
+        pool = new BitmapPool(1024 * 1024);
+    }
+
+    @Test
+    public void sizeOf_chargesBitmapBytesAndPictureEstimate() throws Exception {
+        SnapshotCache cache = new SnapshotCache(1024 * 1024);
+        cache.put(0, newSnapshot());
+        assertEquals(BYTES, cache.size());
+        cache.put(1, new Snapshot(pool, new Picture(), WIDTH, HEIGHT));
+        assertEquals(BYTES + Snapshot.PICTURE_BYTE_COUNT, cache.size());
+    }
+
+    @Test
+    public void exceededBudget_evictsLeastRecentlyUsedPosition() throws Exception {
+        SnapshotCache cache = new SnapshotCache(2 * BYTES);
+        cache.put(0, newSnapshot());
+        cache.put(1, newSnapshot());
+        assertNotNull(cache.get(0));
+        cache.put(2, newSnapshot());
+        assertNull(cache.get(1));
+        assertNotNull(cache.get(0));
+        assertNotNull(cache.get(2));
+        assertEquals(2 * BYTES, cache.size());
+    }
+
+    @Test
+    public void removedSnapshot_isReleasedOnce() throws Exception {
+        SnapshotCache cache = new SnapshotCache(1024 * 1024);
+        Snapshot snapshot = newSnapshot();
+        // one reference is held by page and another one by cache
+        cache.put(0, snapshot.retain());
+        cache.evictAll();
+        assertTrue(snapshot.isAlive());
+        assertEquals(0, pool.getBytesHeld());
+        snapshot.release();
+        assertFalse(snapshot.isAlive());
+        assertEquals(BYTES, pool.getBytesHeld());
+        assertSame(snapshot.bitmap, pool.acquire(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+    }
+
+    @Test
+    public void replacedSnapshot_isReleased() throws Exception {
+        SnapshotCache cache = new SnapshotCache(1024 * 1024);
+        Snapshot snapshot = newSnapshot();
+        cache.put(0, snapshot);
+        cache.put(0, newSnapshot());
+        assertFalse(snapshot.isAlive());
+        assertEquals(BYTES, pool.getBytesHeld());
+    }
+
+    private Snapshot newSnapshot() {
+        return new Snapshot(pool, pool.acquire(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888), WIDTH, HEIGHT);
+    }
+}
@@ -0,0 +1,161 @@
+package com.cleveroad.splittransformation;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.support.annotation.NonNull;
+import android.view.View;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for snapshots rendered on background thread.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class SnapshotJobTest {
+
+    private static final int POOL_SIZE = 16 * 1024 * 1024;
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    private Context context;
+    private FrameLayout container;
+
+    @Before
+    public void setUp() throws Exception {
+        context = RuntimeEnvironment.application;
+        container = new FrameLayout(context);
+    }
+
+    @Test
+    public void destroyedPage_dropsPendingSnapshot() throws Exception {
+        TransformationAdapterWrapper wrapper = TransformationAdapterWrapper.wrap(context, new TextAdapter())
+                .asyncSnapshots(true)
+                .prefetchSnapshots(false)
+                .pagePoolSize(0)
+                .build();
+        View page = (View) wrapper.instantiateItem(container, 0);
+        TransformerView transformerView = (TransformerView) page.findViewById(R.id.split_view);
+        wrapper.destroyItem(container, 0, page);
+        awaitSnapshotJobs();
+        assertFalse(transformerView.hasSnapshot());
+        // cancelled job either didn't start or returned its bitmap to pool
+        BitmapPool pool = wrapper.getBitmapPool();
+        assertEquals(pool.getBytesAllocated(), pool.getBytesHeld());
+    }
+
+    @Test
+    public void failedJob_isReportedToCallback() throws Exception {
+        SnapshotRenderer renderer = new SnapshotRenderer(new FailingBitmapPool(1), 1f, Bitmap.Config.ARGB_8888, true, 0);
+        RecordingCallback callback = new RecordingCallback();
+        renderer.renderAsync(newTextView(), false, callback);
+        awaitSnapshotJobs();
+        assertNull(callback.snapshot);
+        assertTrue(callback.error instanceof OutOfMemoryError);
+    }
+
+    @Test
+    public void failedJob_letsPageRequestSnapshotAgain() throws Exception {
+        TransformationAdapterWrapper wrapper = TransformationAdapterWrapper.wrap(context, new TextAdapter())
+                .asyncSnapshots(true)
+                .prefetchSnapshots(false)
+                .bitmapPool(new FailingBitmapPool(1))
+                .build();
+        View page = (View) wrapper.instantiateItem(container, 0);
+        wrapper.finishUpdate(container);
+        TransformerView transformerView = (TransformerView) page.findViewById(R.id.split_view);
+        awaitSnapshotJobs();
+        assertFalse(transformerView.hasSnapshot());
+
+        // failure cleared pending job, so next frame renders snapshot again
+        wrapper.transformPage(page, 0.5f);
+        awaitSnapshotJobs();
+        assertTrue(transformerView.hasSnapshot());
+    }
+
+    private TextView newTextView() {
+        TextView view = new TextView(context);
+        view.setText("Page");
+        return view;
+    }
+
+    /**
+     * Wait until jobs submitted before this call are finished and deliver their results on main thread.
+     * Snapshots are rendered by single thread, so results of previous jobs are posted before result of marker job.
+     */
+    private void awaitSnapshotJobs() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        new SnapshotRenderer(new BitmapPool(0), 1f, Bitmap.Config.ARGB_8888, true, 0)
+                .renderAsync(newTextView(), false, new SnapshotRenderer.Callback() {
+                    @Override
+                    public void onSnapshotReady(@NonNull Snapshot snapshot) {
+                        snapshot.release();
+                        latch.countDown();
+                    }
+
+                    @Override
+                    public void onSnapshotFailed(@NonNull Throwable error) {
+                        latch.countDown();
+                    }
+                });
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (latch.getCount() > 0 && System.currentTimeMillis() < deadline) {
+            Robolectric.flushForegroundThreadScheduler();
+            Thread.sleep(10);
+        }
+        assertEquals(0, latch.getCount());
+    }
+
+    /**
+     * Pool that fails to allocate first bitmaps like device that is out of memory.
+     */
+    private static class FailingBitmapPool extends BitmapPool {
+
+        private int failures;
+
+        FailingBitmapPool(int failures) {
+            super(POOL_SIZE);
+            this.failures = failures;
+        }
+
+        @NonNull
+        @Override
+        public synchronized Bitmap acquire(int width, int height, @NonNull Bitmap.Config config) {
+            if (failures > 0) {
+                failures--;
+                throw new OutOfMemoryError("No memory for " + width + "x" + height + " bitmap");
+            }
+            return super.acquire(width, height, config);
+        }
+    }
+
+    private static class RecordingCallback implements SnapshotRenderer.Callback {
+
+        private volatile Snapshot snapshot;
+        private volatile Throwable error;
+
+        @Override
+        public void onSnapshotReady(@NonNull Snapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public void onSnapshotFailed(@NonNull Throwable error) {
+            this.error = error;
+        }
+    }
+}
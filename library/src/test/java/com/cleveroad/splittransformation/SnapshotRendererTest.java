@@ -0,0 +1,143 @@
+package com.cleveroad.splittransformation;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for pixel content of snapshots rendered by {@link SnapshotRenderer}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class SnapshotRendererTest {
+
+    private static final int SIZE = 100;
+
+    private Context context;
+    private SnapshotRenderer renderer;
+
+    @Before
+    public void setUp() throws Exception {
+        context = RuntimeEnvironment.application;
+        renderer = new SnapshotRenderer(new BitmapPool(0), 0.5f, Bitmap.Config.ARGB_8888, true, 0, new PixelCanvas());
+    }
+
+    @Test
+    public void render_scalesEverySnapshotFromIdentity() throws Exception {
+        renderer.render(newColorView(Color.RED), false);
+        Snapshot snapshot = renderer.render(newColorView(Color.BLUE), false);
+        // scale of previous snapshot would shrink content to top-left corner
+        assertEquals(SIZE / 2, snapshot.bitmap.getWidth());
+        assertEquals(Color.BLUE, snapshot.bitmap.getPixel(0, 0));
+        assertEquals(Color.BLUE, snapshot.bitmap.getPixel(SIZE / 2 - 1, SIZE / 2 - 1));
+    }
+
+    @Test
+    public void renderDirty_redrawsOnlyInvalidatedChild() throws Exception {
+        Activity activity = Robolectric.setupActivity(Activity.class);
+        SnapshotContainer container = new SnapshotContainer(activity);
+        FrameLayout page = new FrameLayout(activity);
+        ColorView left = new ColorView(activity, Color.RED);
+        ColorView right = new ColorView(activity, Color.RED);
+        page.addView(left, new FrameLayout.LayoutParams(SIZE / 2, SIZE));
+        FrameLayout.LayoutParams rightParams = new FrameLayout.LayoutParams(SIZE / 2, SIZE);
+        rightParams.leftMargin = SIZE / 2;
+        page.addView(right, rightParams);
+        container.addView(page);
+        // invalidation reaches container only in attached window
+        activity.setContentView(container, new ViewGroup.LayoutParams(SIZE, SIZE));
+        container.measure(View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY));
+        container.layout(0, 0, SIZE, SIZE);
+        Snapshot snapshot = renderer.render(page, false);
+        container.resetDirtyRegion();
+
+        // left child is changed without invalidation, so its pixels show whether area outside dirty region was redrawn
+        left.paint.setColor(Color.GREEN);
+        right.setColor(Color.BLUE);
+        Rect dirty = new Rect();
+        assertTrue(container.getDirtyRegion(dirty));
+        assertEquals(new Rect(SIZE / 2, 0, SIZE, SIZE), dirty);
+        assertTrue(renderer.renderDirty(page, snapshot, dirty));
+        assertEquals(Color.RED, snapshot.bitmap.getPixel(0, 0));
+        assertEquals(Color.RED, snapshot.bitmap.getPixel(SIZE / 4 - 1, SIZE / 2 - 1));
+        assertEquals(Color.BLUE, snapshot.bitmap.getPixel(SIZE / 4, 0));
+        assertEquals(Color.BLUE, snapshot.bitmap.getPixel(SIZE / 2 - 1, SIZE / 2 - 1));
+    }
+
+    @Test
+    public void automaticConfig_usesRgb565ForOpaqueViews() throws Exception {
+        SnapshotRenderer renderer = new SnapshotRenderer(new BitmapPool(0), 0.5f, null, true, 0);
+        ColorView view = newColorView(Color.RED);
+        assertEquals(Bitmap.Config.RGB_565, renderer.render(view, false).bitmap.getConfig());
+        assertEquals(SIZE / 2 * SIZE / 2 * 2, renderer.getRasterByteCount(view));
+    }
+
+    @Test
+    public void automaticConfig_keepsArgb8888ForTranslucentViews() throws Exception {
+        SnapshotRenderer renderer = new SnapshotRenderer(new BitmapPool(0), 0.5f, null, true, 0);
+        ColorView view = newColorView(Color.argb(128, 255, 0, 0));
+        assertEquals(Bitmap.Config.ARGB_8888, renderer.render(view, false).bitmap.getConfig());
+        assertEquals(SIZE / 2 * SIZE / 2 * 4, renderer.getRasterByteCount(view));
+    }
+
+    @Test
+    public void explicitConfig_isKeptForOpaqueViews() throws Exception {
+        Snapshot snapshot = renderer.render(newColorView(Color.RED), false);
+        assertEquals(Bitmap.Config.ARGB_8888, snapshot.bitmap.getConfig());
+    }
+
+    private ColorView newColorView(int color) {
+        ColorView view = new ColorView(context, color);
+        view.measure(View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, SIZE, SIZE);
+        return view;
+    }
+
+    /**
+     * View filled with solid color.
+     */
+    private static class ColorView extends View {
+
+        private final Paint paint = new Paint();
+
+        ColorView(Context context, int color) {
+            super(context);
+            paint.setColor(color);
+        }
+
+        void setColor(int color) {
+            paint.setColor(color);
+            invalidate();
+        }
+
+        @Override
+        public boolean isOpaque() {
+            return Color.alpha(paint.getColor()) == 255;
+        }
+
+        @Override
+        protected void onDraw(Canvas canvas) {
+            canvas.drawRect(0, 0, getWidth(), getHeight(), paint);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.cleveroad.splittransformation;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.support.v4.view.PagerAdapter;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for sharing of snapshots between pages with identical content.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class SnapshotStoreTest {
+
+    private Context context;
+    private BitmapPool bitmapPool;
+
+    @Before
+    public void setUp() throws Exception {
+        context = RuntimeEnvironment.application;
+        bitmapPool = new BitmapPool(0);
+    }
+
+    @Test
+    public void identicalContent_sharesSnapshot() throws Exception {
+        SnapshotStore store = new SnapshotStore(true);
+        Snapshot first = store.deduplicate(null, newSnapshot(Color.RED));
+        Snapshot second = store.deduplicate(null, newSnapshot(Color.RED));
+        Snapshot other = store.deduplicate(null, newSnapshot(Color.BLUE));
+        assertSame(first, second);
+        assertNotSame(first, other);
+        assertTrue(first.isShared());
+        assertFalse(other.isShared());
+    }
+
+    @Test
+    public void uniqueSnapshot_isNotShared() throws Exception {
+        SnapshotStore store = new SnapshotStore(true);
+        Snapshot snapshot = store.deduplicate("key", newSnapshot(Color.RED));
+        assertFalse(snapshot.isShared());
+        Snapshot shared = store.get("key");
+        assertSame(snapshot, shared);
+        assertTrue(snapshot.isShared());
+    }
+
+    @Test
+    public void removedSnapshot_isNotFound() throws Exception {
+        SnapshotStore store = new SnapshotStore(true);
+        Snapshot first = store.deduplicate("key", newSnapshot(Color.RED));
+        store.remove(first);
+        assertNull(store.get("key"));
+        assertNotSame(first, store.deduplicate(null, newSnapshot(Color.RED)));
+    }
+
+    @Test
+    public void disabledHashing_keepsSnapshots() throws Exception {
+        SnapshotStore store = new SnapshotStore(false);
+        Snapshot first = store.deduplicate(null, newSnapshot(Color.RED));
+        Snapshot second = store.deduplicate(null, newSnapshot(Color.RED));
+        assertNotSame(first, second);
+        assertFalse(first.isShared());
+    }
+
+    @Test
+    public void releasedSnapshot_isNotShared() throws Exception {
+        SnapshotStore store = new SnapshotStore(true);
+        Snapshot first = store.deduplicate("key", newSnapshot(Color.RED));
+        first.release();
+        assertNull(store.get("key"));
+        Snapshot second = store.deduplicate(null, newSnapshot(Color.RED));
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void contentKeys_shareSnapshotBetweenPages() throws Exception {
+        TransformationAdapterWrapper wrapper = TransformationAdapterWrapper.wrap(context, new RepeatingAdapter())
+                .prefetchSnapshots(false)
+                .build();
+        FrameLayout container = new FrameLayout(context);
+        View first = (View) wrapper.instantiateItem(container, 0);
+        View second = (View) wrapper.instantiateItem(container, 3);
+        View third = (View) wrapper.instantiateItem(container, 1);
+        Bitmap firstBitmap = ((TransformerView) first.findViewById(R.id.split_view)).getBitmap();
+        assertSame(firstBitmap, ((TransformerView) second.findViewById(R.id.split_view)).getBitmap());
+        assertNotSame(firstBitmap, ((TransformerView) third.findViewById(R.id.split_view)).getBitmap());
+    }
+
+    private Snapshot newSnapshot(int color) {
+        Bitmap bitmap = Bitmap.createBitmap(64, 64, Bitmap.Config.ARGB_8888);
+        bitmap.eraseColor(color);
+        return new Snapshot(bitmapPool, bitmap, 64, 64);
+    }
+
+    private static class RepeatingAdapter extends PagerAdapter implements ContentKeyProvider {
+
+        @Override
+        public int getCount() {
+            return 9;
+        }
+
+        @Override
+        public Object instantiateItem(ViewGroup container, int position) {
+            TextView view = new TextView(container.getContext());
+            view.setText("Page " + position % 3);
+            container.addView(view, 480, 800);
+            return view;
+        }
+
+        @Override
+        public void destroyItem(ViewGroup container, int position, Object object) {
+            container.removeView((View) object);
+        }
+
+        @Override
+        public boolean isViewFromObject(View view, Object object) {
+            return view == object;
+        }
+
+        @Override
+        public Object getContentKey(int position) {
+            return position % 3;
+        }
+    }
+}
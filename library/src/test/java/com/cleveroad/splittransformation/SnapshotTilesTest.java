@@ -0,0 +1,80 @@
+package com.cleveroad.splittransformation;
+
+import android.graphics.Bitmap;
+import android.graphics.RectF;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for tiled snapshots of pages that exceed maximum texture size.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class SnapshotTilesTest {
+
+    private static final int TILE_SIZE = 512;
+
+    private SnapshotRenderer renderer;
+
+    @Before
+    public void setUp() throws Exception {
+        renderer = new SnapshotRenderer(new BitmapPool(0), 1.0f, Bitmap.Config.ARGB_8888, true, TILE_SIZE);
+    }
+
+    @Test
+    public void render_splitsTallPagesIntoTiles() throws Exception {
+        Snapshot snapshot = renderer.render(newPage(300, 5000), true);
+        assertNull(snapshot.bitmap);
+        assertNotNull(snapshot.tiles);
+        assertEquals(1, snapshot.tiles.getColumns());
+        assertEquals(10, snapshot.tiles.getRows());
+        assertEquals(300, snapshot.tiles.getTile(0, 0).getWidth());
+        assertEquals(TILE_SIZE, snapshot.tiles.getTile(0, 0).getHeight());
+        assertEquals(5000 - 9 * TILE_SIZE, snapshot.tiles.getTile(9, 0).getHeight());
+        assertEquals(300 * 5000 * 4, snapshot.getByteCount());
+    }
+
+    @Test
+    public void render_keepsSingleBitmap() throws Exception {
+        Snapshot small = renderer.render(newPage(300, 1000), true);
+        assertNull(small.tiles);
+        assertEquals(1000, small.bitmap.getHeight());
+        Snapshot unsupported = renderer.render(newPage(300, 5000), false);
+        assertNull(unsupported.tiles);
+        assertEquals(5000, unsupported.bitmap.getHeight());
+    }
+
+    @Test
+    public void drawPiece_drawsOnlyOverlappedTiles() throws Exception {
+        SnapshotTiles tiles = renderer.render(newPage(3000, 3000), true).tiles;
+        RecordingCanvas canvas = new RecordingCanvas(1000, 1000);
+        RectF canvasPiece = new RectF(0, 0, 100, 100);
+        tiles.drawPiece(canvas, canvasPiece, 10, 0, 0, TILE_SIZE, TILE_SIZE, null);
+        assertEquals(1, canvas.getDrawOps());
+        canvas.reset();
+        tiles.drawPiece(canvas, canvasPiece, 10, 500, 500, 600, 600, null);
+        assertEquals(4, canvas.getDrawOps());
+        canvas.reset();
+        tiles.drawPiece(canvas, canvasPiece, 10, 2900, 0, 3000, 1100, null);
+        assertEquals(3, canvas.getDrawOps());
+        assertEquals(canvas.getSaveCalls(), canvas.getRestoreCalls());
+    }
+
+    private View newPage(int width, int height) {
+        View view = new View(RuntimeEnvironment.application);
+        view.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, width, height);
+        return view;
+    }
+}
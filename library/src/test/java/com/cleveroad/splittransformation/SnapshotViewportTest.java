@@ -0,0 +1,70 @@
+package com.cleveroad.splittransformation;
+
+import android.graphics.Bitmap;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
+import android.widget.ScrollView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for snapshots clipped to viewport of view pager.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class SnapshotViewportTest {
+
+    private static final int CONTENT_HEIGHT = 5000;
+
+    private SnapshotRenderer renderer;
+
+    @Before
+    public void setUp() throws Exception {
+        renderer = new SnapshotRenderer(new BitmapPool(0), 1.0f, Bitmap.Config.ARGB_8888, true, 0);
+    }
+
+    @Test
+    public void render_measuresNewPagesWithinViewport() throws Exception {
+        renderer.setViewport(SwipeBenchmark.WIDTH, SwipeBenchmark.HEIGHT);
+        Snapshot snapshot = renderer.render(newLongPage(), false);
+        assertEquals(SwipeBenchmark.WIDTH, snapshot.originalWidth);
+        assertEquals(SwipeBenchmark.HEIGHT, snapshot.originalHeight);
+        assertEquals(SwipeBenchmark.HEIGHT, snapshot.bitmap.getHeight());
+    }
+
+    @Test
+    public void render_clipsScrolledPagesToViewport() throws Exception {
+        ScrollView page = new ScrollView(RuntimeEnvironment.application);
+        page.addView(newLongPage());
+        page.measure(View.MeasureSpec.makeMeasureSpec(SwipeBenchmark.WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(CONTENT_HEIGHT, View.MeasureSpec.EXACTLY));
+        page.layout(0, 0, SwipeBenchmark.WIDTH, CONTENT_HEIGHT);
+        page.scrollTo(0, 1000);
+        renderer.setViewport(SwipeBenchmark.WIDTH, SwipeBenchmark.HEIGHT);
+        Snapshot snapshot = renderer.render(page, false);
+        assertEquals(SwipeBenchmark.HEIGHT, snapshot.bitmap.getHeight());
+        assertEquals(SwipeBenchmark.WIDTH * SwipeBenchmark.HEIGHT * 4, renderer.getRasterByteCount(page));
+    }
+
+    @Test
+    public void render_keepsMeasuredSizeWithoutViewport() throws Exception {
+        Snapshot snapshot = renderer.render(newLongPage(), false);
+        assertEquals(CONTENT_HEIGHT, snapshot.originalHeight);
+    }
+
+    private View newLongPage() {
+        LinearLayout page = new LinearLayout(RuntimeEnvironment.application);
+        page.setOrientation(LinearLayout.VERTICAL);
+        page.addView(new View(RuntimeEnvironment.application),
+                new LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, CONTENT_HEIGHT));
+        return page;
+    }
+}
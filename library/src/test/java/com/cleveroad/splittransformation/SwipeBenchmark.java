@@ -0,0 +1,187 @@
+package com.cleveroad.splittransformation;
+
+import android.content.Context;
+import android.util.SparseArray;
+import android.view.View;
+import android.widget.FrameLayout;
+
+/**
+ * Drives {@link TransformationAdapterWrapper#transformPage(View, float)} through scripted swipes and
+ * collects per-frame costs of drawing transformed pages.
+ */
+class SwipeBenchmark {
+
+    static final int WIDTH = 480;
+    static final int HEIGHT = 800;
+
+    private final TransformationAdapterWrapper wrapper;
+    private final FrameLayout container;
+    private final RecordingCanvas canvas;
+    private final SparseArray<View> pages = new SparseArray<>();
+    private final SparseArray<View> framePages = new SparseArray<>();
+
+    private int frames;
+    private int maxDrawOps, totalDrawOps;
+    private int maxSaves, totalSaves;
+    private int unbalancedFrames;
+    private long totalNanos, maxNanos;
+    private long bytesAllocated;
+
+    SwipeBenchmark(Context context, TransformationAdapterWrapper.Builder builder) {
+        container = new FrameLayout(context);
+        canvas = new RecordingCanvas(WIDTH, HEIGHT);
+        wrapper = builder.build();
+        page(0);
+        page(1);
+    }
+
+    /**
+     * Get page at adapter position, page is instantiated and laid out if necessary.
+     */
+    private View page(int position) {
+        View page = pages.get(position);
+        if (page == null) {
+            page = (View) wrapper.instantiateItem(container, position);
+            wrapper.finishUpdate(container);
+            container.measure(
+                    View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY)
+            );
+            container.layout(0, 0, WIDTH, HEIGHT);
+            pages.put(position, page);
+        }
+        return page;
+    }
+
+    /**
+     * Replay recorded trace. View pager transforms every visible page once per frame,
+     * so frame ends when a page is transformed again.
+     *
+     * @param trace recorded trace
+     */
+    SwipeBenchmark replay(SwipeTrace trace) {
+        long bytesBefore = wrapper.getBitmapPool().getBytesAllocated();
+        canvas.reset();
+        long start = System.nanoTime();
+        for (int i = 0; i < trace.size(); i++) {
+            if (trace.getType(i) != SwipeTrace.TYPE_TRANSFORM_PAGE) {
+                continue;
+            }
+            int position = trace.getPage(i);
+            if (framePages.get(position) != null) {
+                endFrame(start);
+                canvas.reset();
+                start = System.nanoTime();
+            }
+            View page = page(position);
+            wrapper.transformPage(page, trace.getPosition(i));
+            framePages.put(position, page);
+        }
+        if (framePages.size() > 0) {
+            endFrame(start);
+        }
+        bytesAllocated += wrapper.getBitmapPool().getBytesAllocated() - bytesBefore;
+        return this;
+    }
+
+    /**
+     * Swipe to the next page and back.
+     *
+     * @param framesPerSwipe number of frames in one direction
+     */
+    SwipeBenchmark swipe(int framesPerSwipe) {
+        long bytesBefore = wrapper.getBitmapPool().getBytesAllocated();
+        for (int i = 0; i <= framesPerSwipe; i++) {
+            frame(i / (float) framesPerSwipe);
+        }
+        for (int i = framesPerSwipe; i >= 0; i--) {
+            frame(i / (float) framesPerSwipe);
+        }
+        bytesAllocated += wrapper.getBitmapPool().getBytesAllocated() - bytesBefore;
+        return this;
+    }
+
+    private void frame(float offset) {
+        canvas.reset();
+        long start = System.nanoTime();
+        wrapper.transformPage(page(0), -offset);
+        wrapper.transformPage(page(1), 1 - offset);
+        framePages.put(0, page(0));
+        framePages.put(1, page(1));
+        endFrame(start);
+    }
+
+    /**
+     * Draw pages transformed in current frame and collect frame's costs.
+     */
+    private void endFrame(long start) {
+        for (int i = 0; i < framePages.size(); i++) {
+            draw(framePages.valueAt(i));
+        }
+        framePages.clear();
+        long nanos = System.nanoTime() - start;
+        frames++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+        totalDrawOps += canvas.getDrawOps();
+        maxDrawOps = Math.max(maxDrawOps, canvas.getDrawOps());
+        totalSaves += canvas.getSaveCalls();
+        maxSaves = Math.max(maxSaves, canvas.getSaveCalls());
+        if (canvas.getSaveCalls() != canvas.getRestoreCalls()) {
+            unbalancedFrames++;
+        }
+    }
+
+    private void draw(View page) {
+        View transformerView = page.findViewById(R.id.split_view);
+        if (transformerView.getVisibility() == View.VISIBLE) {
+            transformerView.draw(canvas);
+        }
+    }
+
+    int getFrames() {
+        return frames;
+    }
+
+    int getMaxDrawOps() {
+        return maxDrawOps;
+    }
+
+    float getAverageDrawOps() {
+        return frames == 0 ? 0 : totalDrawOps / (float) frames;
+    }
+
+    int getMaxSaves() {
+        return maxSaves;
+    }
+
+    float getAverageSaves() {
+        return frames == 0 ? 0 : totalSaves / (float) frames;
+    }
+
+    int getUnbalancedFrames() {
+        return unbalancedFrames;
+    }
+
+    long getBytesAllocated() {
+        return bytesAllocated;
+    }
+
+    long getAverageNanos() {
+        return frames == 0 ? 0 : totalNanos / frames;
+    }
+
+    long getMaxNanos() {
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "frames=" + frames
+                + " drawOps(avg/max)=" + getAverageDrawOps() + "/" + maxDrawOps
+                + " saves(avg/max)=" + getAverageSaves() + "/" + maxSaves
+                + " unbalancedFrames=" + unbalancedFrames
+                + " bytesAllocated=" + bytesAllocated
+                + " frameTimeNs(avg/max)=" + getAverageNanos() + "/" + maxNanos;
+    }
+}
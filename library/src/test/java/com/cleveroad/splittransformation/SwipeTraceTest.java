@@ -0,0 +1,72 @@
+package com.cleveroad.splittransformation;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for recording and reading of swipe traces.
+ */
+public class SwipeTraceTest {
+
+    @Test
+    public void writtenTrace_isReadBack() throws Exception {
+        SwipeTraceRecorder recorder = new SwipeTraceRecorder(16);
+        recorder.recordTransformPage(3, -0.25f);
+        recorder.recordTransformPage(4, 0.75f);
+        recorder.recordPageScrolled(3, 0.25f);
+        SwipeTrace trace = read(recorder);
+        assertEquals(3, trace.size());
+        assertEquals(SwipeTrace.TYPE_TRANSFORM_PAGE, trace.getType(0));
+        assertEquals(3, trace.getPage(0));
+        assertEquals(-0.25f, trace.getPosition(0), 0);
+        assertEquals(4, trace.getPage(1));
+        assertEquals(0.75f, trace.getPosition(1), 0);
+        assertEquals(SwipeTrace.TYPE_PAGE_SCROLLED, trace.getType(2));
+        assertEquals(0.25f, trace.getPosition(2), 0);
+        assertEquals(0, trace.getTimeNanos(0));
+        assertTrue(trace.getTimeNanos(2) >= trace.getTimeNanos(1));
+    }
+
+    @Test
+    public void fullRecorder_keepsLatestRecords() throws Exception {
+        SwipeTraceRecorder recorder = new SwipeTraceRecorder(4);
+        for (int i = 0; i < 10; i++) {
+            recorder.recordTransformPage(i, i / 10f);
+        }
+        assertEquals(4, recorder.size());
+        SwipeTrace trace = read(recorder);
+        assertEquals(4, trace.size());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(6 + i, trace.getPage(i));
+        }
+    }
+
+    @Test
+    public void records_areCompact() throws Exception {
+        SwipeTraceRecorder recorder = new SwipeTraceRecorder(1000);
+        for (int i = 0; i < 1000; i++) {
+            recorder.recordTransformPage(i % 5, i / 1000f);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recorder.writeTo(out);
+        // header, type, page, position and time delta of a few bytes
+        assertTrue(out.size() <= 9 + 1000 * 10);
+    }
+
+    @Test(expected = IOException.class)
+    public void foreignStream_isRejected() throws Exception {
+        SwipeTrace.read(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9}));
+    }
+
+    private static SwipeTrace read(SwipeTraceRecorder recorder) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recorder.writeTo(out);
+        return SwipeTrace.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+}
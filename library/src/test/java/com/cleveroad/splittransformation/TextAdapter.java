@@ -0,0 +1,45 @@
+package com.cleveroad.splittransformation;
+
+import android.support.v4.view.PagerAdapter;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+/**
+ * Adapter with text pages of {@link SwipeBenchmark#WIDTH} x {@link SwipeBenchmark#HEIGHT} size shared by tests.
+ */
+class TextAdapter extends PagerAdapter {
+
+    private final int count;
+
+    TextAdapter() {
+        this(2);
+    }
+
+    TextAdapter(int count) {
+        this.count = count;
+    }
+
+    @Override
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public Object instantiateItem(ViewGroup container, int position) {
+        TextView view = new TextView(container.getContext());
+        view.setText("Page " + position);
+        container.addView(view, SwipeBenchmark.WIDTH, SwipeBenchmark.HEIGHT);
+        return view;
+    }
+
+    @Override
+    public void destroyItem(ViewGroup container, int position, Object object) {
+        container.removeView((View) object);
+    }
+
+    @Override
+    public boolean isViewFromObject(View view, Object object) {
+        return view == object;
+    }
+}
@@ -0,0 +1,103 @@
+package com.cleveroad.splittransformation;
+
+import android.content.Context;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that swipes don't trigger measure and layout passes of pages.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class TransformPageLayoutTest {
+
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+    private static final int FRAMES = 60;
+
+    private LayoutCountingLayout container;
+    private TransformationAdapterWrapper wrapper;
+    private View current, next;
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = RuntimeEnvironment.application;
+        container = new LayoutCountingLayout(context);
+        wrapper = TransformationAdapterWrapper.wrap(context, new TextAdapter())
+                .prefetchSnapshots(false)
+                .build();
+        current = (View) wrapper.instantiateItem(container, 0);
+        next = (View) wrapper.instantiateItem(container, 1);
+        wrapper.finishUpdate(container);
+        layoutIfRequested();
+        container.layoutCount = 0;
+    }
+
+    @Test
+    public void simulatedSwipe_doesNotRequestLayout() throws Exception {
+        for (int i = 0; i <= FRAMES; i++) {
+            frame(i / (float) FRAMES);
+        }
+        for (int i = FRAMES; i >= 0; i--) {
+            frame(i / (float) FRAMES);
+        }
+        assertEquals(0, container.layoutCount);
+    }
+
+    @Test
+    public void simulatedSwipe_switchesViewsOnTransitionsOnly() throws Exception {
+        View itemContainer = current.findViewById(TransformationAdapterWrapper.ITEM_CONTAINER_START_ID);
+        View transformerView = current.findViewById(R.id.split_view);
+        frame(0.5f);
+        assertEquals(View.VISIBLE, transformerView.getVisibility());
+        assertEquals(View.INVISIBLE, itemContainer.getVisibility());
+        frame(0f);
+        assertEquals(View.INVISIBLE, transformerView.getVisibility());
+        assertEquals(View.VISIBLE, itemContainer.getVisibility());
+        assertEquals(0, container.layoutCount);
+    }
+
+    private void frame(float offset) {
+        wrapper.transformPage(current, -offset);
+        wrapper.transformPage(next, 1 - offset);
+        layoutIfRequested();
+    }
+
+    /**
+     * Run measure and layout passes the same way as view hierarchy does on next traversal.
+     */
+    private void layoutIfRequested() {
+        if (!container.isLayoutRequested()) {
+            return;
+        }
+        container.measure(
+                View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY)
+        );
+        container.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    private static class LayoutCountingLayout extends FrameLayout {
+
+        private int layoutCount;
+
+        LayoutCountingLayout(Context context) {
+            super(context);
+        }
+
+        @Override
+        protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+            super.onLayout(changed, left, top, right, bottom);
+            layoutCount++;
+        }
+    }
+}